@@ -0,0 +1,67 @@
+/*
+CellGridBenchmark class times cellGrid on random soups of several sizes and
+densities. Every trial starts from the same soup, drawn from a fixed seed, so
+the numbers can be compared from one commit to the next.
+
+Each operation loads the soup first, so the grid never runs down to ash
+halfway through an iteration; setStartingConfiguration is timed on its own
+to show what that costs. One generation is played through runGame(1), whose
+only generation is a full nextGen: nextGen on its own never starts a new
+scoring epoch, so calling it over and over would score the same cells again
+and again.
+ */
+
+package gameoflifega;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CellGridBenchmark {
+    private static final long SEED = 20170602L;
+
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    // The percent chance of each cell starting alive.
+    @Param({"10", "30", "50"})
+    public int density;
+
+    // The number of generations runGame plays, as EvolutionaryAgent does.
+    @Param({"50"})
+    public int numGameGens;
+
+    // Instance Variables
+    private cellGrid grid;
+    private Configuration soup;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new cellGrid(size, size);
+        soup = new Configuration(size, size);
+        soup.setRandomConfiguration(density, new SplittableRandom(SEED));
+    }
+
+    @Benchmark
+    public void setStartingConfiguration() {
+        grid.setStartingConfiguration(soup);
+    }
+
+    @Benchmark
+    public double nextGen() {
+        grid.setStartingConfiguration(soup);
+        return grid.runGame(1, false);
+    }
+
+    @Benchmark
+    public double runGame() {
+        grid.setStartingConfiguration(soup);
+        return grid.runGame(numGameGens, false);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ConfigurationBenchmark class times the per-configuration variation operators:
+mutation, the region swap crossover is built on, and the copy every selected
+configuration goes through. The random numbers come from a fixed seed.
+ */
+
+package gameoflifega;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigurationBenchmark {
+    private static final long SEED = 20170602L;
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    // The percent chance of each cell mutating: the agent's usual rate and
+    // its hypermutation rate.
+    @Param({"5", "20"})
+    public int mutationChance;
+
+    // Instance Variables
+    private Configuration config;
+    private Configuration other;
+    private SplittableRandom randGen;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        randGen = new SplittableRandom(SEED);
+        config = new Configuration(size, size);
+        config.setRandomConfiguration(30, randGen);
+        other = new Configuration(size, size);
+        other.setRandomConfiguration(30, randGen);
+    }
+
+    @Benchmark
+    public Configuration mutation() {
+        config.mutation(mutationChance, randGen);
+        return config;
+    }
+
+    @Benchmark
+    public Configuration swapCellRegion() {
+        int top = randGen.nextInt(size);
+        int left = randGen.nextInt(size);
+        config.swapCellRegion(other, top, left, randGen.nextInt(size - top), randGen.nextInt(size - left));
+        return config;
+    }
+
+    @Benchmark
+    public Configuration deepCopy() {
+        config.deepCopy(other);
+        return config;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+EvolutionaryAgentBenchmark class times the agent's crossover step and one
+whole generation of evolvePattern: scoring, ranking, selection and variation.
+
+The agent is seeded and restarted at the start of every iteration, so each
+iteration replays the same generations from the same random population, and
+the fitness cache starts empty each time as it does in a fresh run. The
+population and its scores change as it evolves, just as in a real run, so
+the generation benchmark measures a run's early generations rather than one
+fixed workload.
+ */
+
+package gameoflifega;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvolutionaryAgentBenchmark {
+    private static final long SEED = 20170602L;
+
+    @Param({"16", "64"})
+    public int gridSize;
+
+    @Param({"200", "2000"})
+    public int popSize;
+
+    // Instance Variables
+    private EvolutionaryAgent agent;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        agent = new EvolutionaryAgent(gridSize, gridSize, popSize);
+        agent.setSeed(SEED);
+        agent.startEvolution();
+        agent.evaluateGeneration(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        agent.shutdownWorkers();
+    }
+
+    // Crosses from numElites / 2 on, as breedNextGeneration does, but every
+    // pair crosses, the worst case; the agent's usual chance is 5%.
+    @Benchmark
+    public EvolutionaryAgent crossover() {
+        agent.crossover(10, 100);
+        return agent;
+    }
+
+    @Benchmark
+    public EvolutionaryAgent generation() {
+        agent.breedNextGeneration();
+        agent.evaluateGeneration(true);
+        return agent;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+SelectionBenchmark class times one generation's worth of selection with each
+SelectionStrategy: a prepare, then one pick per configuration. The scores are
+drawn from a fixed seed and spread like a real population's, a few hundred to
+a few tens of thousands.
+ */
+
+package gameoflifega;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionBenchmark {
+    private static final long SEED = 20170602L;
+
+    @Param({"200", "10000"})
+    public int popSize;
+
+    @Param({"tournament", "rank", "roulette"})
+    public String strategy;
+
+    // Instance Variables
+    private Configuration[] population;
+    private SelectionStrategy selectionStrategy;
+    private SplittableRandom randGen;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        randGen = new SplittableRandom(SEED);
+        population = new Configuration[popSize];
+        for (int i = 0; i < popSize; i++) {
+            population[i] = new Configuration(1, 1);
+            population[i].setScore(Math.floor(300 * Math.pow(100, randGen.nextDouble())));
+        }
+        if (strategy.equals("tournament")) {
+            selectionStrategy = new TournamentSelection(40);
+        } else if (strategy.equals("rank")) {
+            selectionStrategy = new RankSelection();
+        } else if (strategy.equals("roulette")) {
+            selectionStrategy = new RouletteSelection();
+        } else {
+            throw new IllegalArgumentException("Unknown selection strategy: " + strategy);
+        }
+    }
+
+    @Benchmark
+    public int selectGeneration() {
+        selectionStrategy.prepare(population, popSize);
+        int sum = 0;
+        for (int i = 0; i < popSize; i++) {
+            sum += selectionStrategy.select(randGen);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+AliasTable class samples indices from a fixed discrete distribution in O(1)
+time per sample, using Vose's alias method. Building the table takes O(n).
+
+The n indices are spread over n columns of equal probability. Column i keeps
+index i with probability keepChance[i] and otherwise gives its alias, so a
+sample is one random column and one random comparison.
+ */
+
+package gameoflifega;
+
+import java.util.random.RandomGenerator;
+
+public class AliasTable {
+    // Instance Variables
+    private double[] keepChance = new double[0];
+    private int[] alias = new int[0];
+    private int[] small = new int[0];
+    private int[] large = new int[0];
+    private int size = 0;
+
+    /*
+    Rebuilds the table for new weights, reusing its arrays.
+
+    @param weights    the non-negative weight of each index; at least one must
+                      be positive, or every index is equally likely.
+    @param size       the int number of weights to use.
+     */
+    public void build(double[] weights, int size) {
+        if (keepChance.length < size) {
+            keepChance = new double[size];
+            alias = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
+        this.size = size;
+
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weights[i];
+        }
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < size; i++) {
+            // Scale so the average column holds exactly 1.
+            keepChance[i] = total > 0 ? weights[i] * size / total : 1;
+            alias[i] = i;
+            if (keepChance[i] < 1) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+
+        // Fill each small column up to 1 with part of a large one.
+        while (numSmall > 0 && numLarge > 0) {
+            int less = small[--numSmall];
+            int more = large[numLarge - 1];
+            alias[less] = more;
+            keepChance[more] -= 1 - keepChance[less];
+            if (keepChance[more] < 1) {
+                numLarge--;
+                small[numSmall++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding.
+        while (numLarge > 0) {
+            keepChance[large[--numLarge]] = 1;
+        }
+        while (numSmall > 0) {
+            keepChance[small[--numSmall]] = 1;
+        }
+    }
+
+    public int sample(RandomGenerator randGen) {
+        int column = randGen.nextInt(size);
+        if (randGen.nextDouble() < keepChance[column]) {
+            return column;
+        }
+        return alias[column];
+    }
+}
@@ -0,0 +1,261 @@
+/*
+BitSlicedEvaluator class scores up to 64 configurations at once. Every cell
+of the grid is one long, and bit k of that long is the cell's state in
+configuration k, so one pass of the same adder logic BitboardGrid uses
+advances all 64 games together. The grid has the same dead border as
+cellGrid, and every configuration gets exactly the score cellGrid.runGame
+would give it.
+
+Scores are summed per configuration with vertical counters: counter bit-plane
+j holds bit j of every lane's running total, so adding one word of 64
+one-bit results costs a couple of operations instead of 64.
+
+Neighborhood novelty needs the actual 9-bit neighborhood of each lane. The
+nine neighborhood words of a cell are turned back into per-lane
+neighborhoods eight lanes at a time with an 8x8 bit-matrix transpose,
+skipping groups of lanes whose neighborhoods are all empty. A lane scores a
+repeat (500 points) when its neighborhood is already marked as seen for that
+lane this generation.
+ */
+
+package gameoflifega;
+
+public class BitSlicedEvaluator {
+    public static final int LANES = 64;
+
+    private static final int COUNTER_PLANES = 48;
+
+    // Instance Variables
+    private int gridHeight = 18;
+    private int gridWidth = 18;
+    private LifeRule rule = LifeRule.CONWAY;
+    private long[] cellWords;
+    private long[] nextWords;
+    private long[] liveCounter = new long[COUNTER_PLANES];
+    private long[] repeatCounter = new long[COUNTER_PLANES];
+
+    private long[] seenLanes = new long[512];
+    private int[] seenNeighborhoods = new int[512];
+    private int numSeenNeighborhoods = 0;
+
+    /*
+    Returns a BitSlicedEvaluator object. Note that the user dimensions are
+    increased by two, just like cellGrid.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @return the BitSlicedEvaluator object
+     */
+    public BitSlicedEvaluator(int gridHeight, int gridWidth) {
+        this.gridHeight = gridHeight + 2;
+        this.gridWidth = gridWidth + 2;
+        cellWords = new long[this.gridHeight * this.gridWidth];
+        nextWords = new long[this.gridHeight * this.gridWidth];
+    }
+
+    /*
+    Returns a BitSlicedEvaluator object that plays by a Life-like rule other
+    than Conway's.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by.
+    @return the BitSlicedEvaluator object
+     */
+    public BitSlicedEvaluator(int gridHeight, int gridWidth, LifeRule rule) {
+        this(gridHeight, gridWidth);
+        this.rule = rule;
+    }
+
+    /*
+    Scores every configuration of a slice, 64 at a time.
+
+    @param slice          the configurations to score, of the grid's dimensions.
+    @param numGameGens    the int number of generations each game runs for.
+    @return the score of each configuration, in the same order as the slice
+     */
+    public double[] evaluate(Configuration[] slice, int numGameGens) {
+        double[] scores = new double[slice.length];
+        evaluate(slice, 0, slice.length, numGameGens, scores);
+        return scores;
+    }
+
+    /*
+    Scores the configurations from index from up to (but not including) index
+    to, 64 at a time, and writes the scores into scores at the same indices.
+     */
+    public void evaluate(Configuration[] configs, int from, int to, int numGameGens, double[] scores) {
+        for (int start = from; start < to; start += LANES) {
+            int numLanes = Math.min(LANES, to - start);
+            loadConfigurations(configs, start, numLanes);
+            runGames(numGameGens);
+            for (int lane = 0; lane < numLanes; lane++) {
+                scores[start + lane] = counterValue(liveCounter, lane) + 500.0 * counterValue(repeatCounter, lane);
+            }
+        }
+    }
+
+    /*
+    Transposes the configurations into bit-sliced form: bit k of each cell
+    word is that cell of configuration start + k. Unused lanes stay dead.
+     */
+    private void loadConfigurations(Configuration[] configs, int start, int numLanes) {
+        for (int i = 0; i < cellWords.length; i++) {
+            cellWords[i] = 0;
+        }
+        for (int lane = 0; lane < numLanes; lane++) {
+            Configuration config = configs[start + lane];
+            long laneBit = 1L << lane;
+            for (int row = 1; row < gridHeight - 1; row++) {
+                for (int col = 1; col < gridWidth - 1; col++) {
+                    if (config.getCell(row-1, col-1)) {
+                        cellWords[row * gridWidth + col] |= laneBit;
+                    }
+                }
+            }
+        }
+    }
+
+    private void runGames(int numGameGens) {
+        for (int plane = 0; plane < COUNTER_PLANES; plane++) {
+            liveCounter[plane] = 0;
+            repeatCounter[plane] = 0;
+        }
+
+        for (int gen = 0; gen < numGameGens; gen++) {
+            nextGen();
+            long[] temp = cellWords;
+            cellWords = nextWords;
+            nextWords = temp;
+        }
+    }
+
+    /*
+    Advances all 64 games by one generation and adds each lane's score for
+    the generation to its counters.
+     */
+    private void nextGen() {
+        for (int row = 1; row < gridHeight - 1; row++) {
+            for (int col = 1; col < gridWidth - 1; col++) {
+                int i = row * gridWidth + col;
+                long upLeft = cellWords[i - gridWidth - 1];
+                long up = cellWords[i - gridWidth];
+                long upRight = cellWords[i - gridWidth + 1];
+                long midLeft = cellWords[i - 1];
+                long mid = cellWords[i];
+                long midRight = cellWords[i + 1];
+                long downLeft = cellWords[i + gridWidth - 1];
+                long down = cellWords[i + gridWidth];
+                long downRight = cellWords[i + gridWidth + 1];
+
+                long upOnes = upLeft ^ up ^ upRight;
+                long upTwos = (upLeft & up) | (upRight & (upLeft ^ up));
+                long downOnes = downLeft ^ down ^ downRight;
+                long downTwos = (downLeft & down) | (downRight & (downLeft ^ down));
+                long midOnes = midLeft ^ midRight;
+                long midTwos = midLeft & midRight;
+
+                long ones = upOnes ^ downOnes ^ midOnes;
+                long onesCarry = (upOnes & downOnes) | (midOnes & (upOnes ^ downOnes));
+                long twosSum = upTwos ^ downTwos ^ midTwos;
+                long twosCarry = (upTwos & downTwos) | (midTwos & (upTwos ^ downTwos));
+                long twos = twosSum ^ onesCarry;
+                long foursCarry = twosSum & onesCarry;
+                long fours = twosCarry ^ foursCarry;
+                long eights = twosCarry & foursCarry;
+
+                long next = rule.nextWord(mid, ones, twos, fours, eights);
+                nextWords[i] = next;
+                addToCounter(liveCounter, next);
+
+                long nonEmpty = upLeft | up | upRight | midLeft | mid | midRight | downLeft | down | downRight;
+                if (nonEmpty != 0) {
+                    long repeats = 0;
+                    for (int shift = 0; shift < LANES; shift += 8) {
+                        if (((nonEmpty >>> shift) & 0xFF) != 0) {
+                            repeats |= scoreLaneGroup(shift, nonEmpty, upLeft, up, upRight,
+                                    midLeft, mid, midRight, downLeft, down, downRight);
+                        }
+                    }
+                    addToCounter(repeatCounter, repeats);
+                }
+            }
+        }
+
+        // Forget this generation's neighborhoods, touching only the ones that were seen.
+        for (int i = 0; i < numSeenNeighborhoods; i++) {
+            seenLanes[seenNeighborhoods[i]] = 0;
+        }
+        numSeenNeighborhoods = 0;
+    }
+
+    /*
+    Scores the neighborhoods of the eight lanes starting at lane shift, and
+    returns the lanes whose neighborhood was a repeat.
+
+    Byte r of the matrix holds those eight lanes of the neighborhood word for
+    position 7 - r (top left is position 0). After the transpose byte k holds
+    lane shift + k's cells for positions 0 to 7 as bits 7 to 0, so shifting it
+    up one bit and adding the bottom right cell gives its neighborhood index.
+     */
+    private long scoreLaneGroup(int shift, long nonEmpty, long upLeft, long up, long upRight,
+                                long midLeft, long mid, long midRight,
+                                long downLeft, long down, long downRight) {
+        long matrix = ((down >>> shift) & 0xFF)
+                | ((downLeft >>> shift) & 0xFF) << 8
+                | ((midRight >>> shift) & 0xFF) << 16
+                | ((mid >>> shift) & 0xFF) << 24
+                | ((midLeft >>> shift) & 0xFF) << 32
+                | ((upRight >>> shift) & 0xFF) << 40
+                | ((up >>> shift) & 0xFF) << 48
+                | ((upLeft >>> shift) & 0xFF) << 56;
+
+        long swap = (matrix ^ (matrix >>> 7)) & 0x00AA00AA00AA00AAL;
+        matrix ^= swap ^ (swap << 7);
+        swap = (matrix ^ (matrix >>> 14)) & 0x0000CCCC0000CCCCL;
+        matrix ^= swap ^ (swap << 14);
+        swap = (matrix ^ (matrix >>> 28)) & 0x00000000F0F0F0F0L;
+        matrix ^= swap ^ (swap << 28);
+
+        long repeats = 0;
+        long lanes = (nonEmpty >>> shift) & 0xFF;
+        while (lanes != 0) {
+            int k = Long.numberOfTrailingZeros(lanes);
+            lanes &= lanes - 1;
+
+            int lane = shift + k;
+            int neighborhood = (int) ((matrix >>> (8 * k)) & 0xFF) << 1 | (int) ((downRight >>> lane) & 1);
+            long laneBit = 1L << lane;
+            long seen = seenLanes[neighborhood];
+            if ((seen & laneBit) != 0) {
+                repeats |= laneBit;
+            } else {
+                if (seen == 0) {
+                    seenNeighborhoods[numSeenNeighborhoods++] = neighborhood;
+                }
+                seenLanes[neighborhood] = seen | laneBit;
+            }
+        }
+        return repeats;
+    }
+
+    /*
+    Adds one to the counter of every lane set in word.
+     */
+    private static void addToCounter(long[] counter, long word) {
+        long carry = word;
+        for (int plane = 0; carry != 0; plane++) {
+            long sum = counter[plane] ^ carry;
+            carry &= counter[plane];
+            counter[plane] = sum;
+        }
+    }
+
+    private static long counterValue(long[] counter, int lane) {
+        long value = 0;
+        for (int plane = 0; plane < COUNTER_PLANES; plane++) {
+            value |= ((counter[plane] >>> lane) & 1) << plane;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+BitboardGrid class simulates Conway's Game of Life with every row of the grid
+packed into 64-bit words, so one pass of bitwise adder logic advances 64
+cells at once. It keeps the same dead border as cellGrid (the user
+dimensions are increased by two) and returns exactly the same scores from
+runGame, so it can stand in for cellGrid wherever patterns are evaluated.
+Like cellGrid it can play by any Life-like LifeRule, which it applies to
+whole words at a time through LifeRule.nextWord.
+
+The rows are stored back to back in one long[] with a zero guard word at each
+end. Column c of a row lives in bit (c % 64) of word (c / 64). Because the
+border columns are always dead, the word before the start of a row and the
+word after the end of a row always contribute zero carry bits, so the stepping
+loop can run over the whole interior without treating row ends specially.
+ */
+
+package gameoflifega;
+
+public class BitboardGrid implements LifeEngine {
+    // Reverses the three bits of a row window so the left cell is the high bit,
+    // matching the order cellGrid reads neighborhoods in.
+    private static final int[] REVERSE_THREE_BITS = {0, 4, 2, 6, 1, 5, 3, 7};
+
+    // Instance Variables
+    protected int gridHeight = 14;
+    protected int gridWidth = 14;
+    protected LifeRule rule = LifeRule.CONWAY;
+    protected int wordsPerRow;
+    protected long[] cellWords;
+    protected long[] nextWords;
+    protected long[] interiorMask;
+    private NoveltyScorer scorer;
+    private CycleDetector cycles;
+
+    /*
+    Returns a BitboardGrid object.
+
+    @return the BitboardGrid object
+     */
+    public BitboardGrid() {
+        initializeWords();
+    }
+
+    /*
+    Returns a BitboardGrid object. Note that the user dimensions are increased
+    by two, just like cellGrid.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @return the BitboardGrid object
+     */
+    public BitboardGrid(int gridHeight, int gridWidth) {
+        this.gridHeight = gridHeight + 2;
+        this.gridWidth = gridWidth + 2;
+        initializeWords();
+    }
+
+    /*
+    Returns a BitboardGrid object that plays by a Life-like rule other than
+    Conway's.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by.
+    @return the BitboardGrid object
+     */
+    public BitboardGrid(int gridHeight, int gridWidth, LifeRule rule) {
+        this(gridHeight, gridWidth);
+        this.rule = rule;
+    }
+
+    private void initializeWords() {
+        wordsPerRow = (gridWidth + 63) / 64;
+        cellWords = new long[gridHeight * wordsPerRow + 2];
+        nextWords = new long[gridHeight * wordsPerRow + 2];
+        interiorMask = new long[gridHeight * wordsPerRow + 2];
+        scorer = new NoveltyScorer(gridHeight * gridWidth);
+        cycles = new CycleDetector(cellWords.length);
+
+        for (int row = 1; row < gridHeight - 1; row++) {
+            for (int col = 1; col < gridWidth - 1; col++) {
+                interiorMask[wordIndex(row, col)] |= 1L << col;
+            }
+        }
+    }
+
+    private int wordIndex(int row, int col) {
+        return 1 + row * wordsPerRow + (col >>> 6);
+    }
+
+    public void setStartingConfiguration(Configuration initialConfig) {
+        clearCellMatrix();
+        for (int row = 1; row < gridHeight - 1; row++) {
+            for (int col = 1; col < gridWidth - 1; col++) {
+                if (initialConfig.getCell(row-1, col-1)) {
+                    cellWords[wordIndex(row, col)] |= 1L << col;
+                }
+            }
+        }
+    }
+
+    public void clearCellMatrix() {
+        for (int i = 0; i < cellWords.length; i++) {
+            cellWords[i] = 0;
+        }
+    }
+
+    public boolean getCell(int row, int col) {
+        return (cellWords[wordIndex(row, col)] & (1L << col)) != 0;
+    }
+
+    /*
+    Plays the game for numGenerations generations and returns the total score.
+    Like cellGrid.runGame, it stops simulating once the grid repeats a state
+    and scores the remaining generations from the cycle.
+     */
+    public double runGame(int numGenerations, boolean printToTerminal) {
+        double totalScore = 0;
+
+        if (printToTerminal) {
+            System.out.println("Welcome to the Game of Life. Here is your starting configuration:");
+            printGrid();
+        }
+
+        boolean detectCycles = !printToTerminal;
+        cycles.reset();
+        for (int gen = 0; gen < numGenerations; gen++) {
+            if (detectCycles) {
+                int period = cycles.checkState(cellWords);
+                if (period > 0) {
+                    // Skip every whole period left. The few generations after them are still
+                    // played, so the grid ends in the same state as if nothing had been skipped.
+                    int skippedGens = (numGenerations - gen) / period * period;
+                    totalScore += cycles.cycleScore(period, skippedGens);
+                    gen += skippedGens;
+                    detectCycles = false;
+                    if (gen == numGenerations) {
+                        break;
+                    }
+                }
+            }
+            scorer.reset();
+            double score = nextGen();
+            totalScore += score;
+            if (detectCycles) {
+                cycles.recordScore(score);
+            }
+            if (printToTerminal) {
+                System.out.println("\nGeneration " + String.valueOf(gen + 1) + ":");
+                printGrid();
+            }
+        }
+
+        if (printToTerminal) {
+            System.out.println("Thanks for playing.\n");
+        }
+
+        return totalScore;
+    }
+
+    /*
+    Updates which cells are alive and which cells are dead in the next
+    generation, 64 cells per word. The cells on the outer edge do not count as
+    live cells and may not come to life. Returns the score for the generation:
+    one point for every cell alive in the next generation, plus the novelty
+    score of every non-empty neighborhood.
+     */
+    public double nextGen() {
+        double score = 0;
+
+        for (int row = 1; row < gridHeight - 1; row++) {
+            int rowStart = 1 + row * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                int i = rowStart + w;
+                long up = cellWords[i - wordsPerRow];
+                long mid = cellWords[i];
+                long down = cellWords[i + wordsPerRow];
+
+                long upLeft = (up << 1) | (cellWords[i - wordsPerRow - 1] >>> 63);
+                long upRight = (up >>> 1) | (cellWords[i - wordsPerRow + 1] << 63);
+                long midLeft = (mid << 1) | (cellWords[i - 1] >>> 63);
+                long midRight = (mid >>> 1) | (cellWords[i + 1] << 63);
+                long downLeft = (down << 1) | (cellWords[i + wordsPerRow - 1] >>> 63);
+                long downRight = (down >>> 1) | (cellWords[i + wordsPerRow + 1] << 63);
+
+                // Add the eight neighbors into a four bit count, one bit-plane per word.
+                long upOnes = upLeft ^ up ^ upRight;
+                long upTwos = (upLeft & up) | (upRight & (upLeft ^ up));
+                long downOnes = downLeft ^ down ^ downRight;
+                long downTwos = (downLeft & down) | (downRight & (downLeft ^ down));
+                long midOnes = midLeft ^ midRight;
+                long midTwos = midLeft & midRight;
+
+                long ones = upOnes ^ downOnes ^ midOnes;
+                long onesCarry = (upOnes & downOnes) | (midOnes & (upOnes ^ downOnes));
+                long twosSum = upTwos ^ downTwos ^ midTwos;
+                long twosCarry = (upTwos & downTwos) | (midTwos & (upTwos ^ downTwos));
+                long twos = twosSum ^ onesCarry;
+                long foursCarry = twosSum & onesCarry;
+                long fours = twosCarry ^ foursCarry;
+                long eights = twosCarry & foursCarry;
+
+                long next = rule.nextWord(mid, ones, twos, fours, eights) & interiorMask[i];
+                nextWords[i] = next;
+                score += Long.bitCount(next);
+
+                // Any cell with a live neighbor or a live center has a non-empty neighborhood.
+                long nonEmpty = (upLeft | up | upRight | midLeft | mid | midRight
+                        | downLeft | down | downRight) & interiorMask[i];
+                score += scoreNeighborhoods(row, w, nonEmpty);
+            }
+        }
+
+        swapBuffers();
+        return score;
+    }
+
+    protected void swapBuffers() {
+        long[] temp = cellWords;
+        cellWords = nextWords;
+        nextWords = temp;
+    }
+
+    /*
+    Scores the non-empty neighborhoods of the given cells of one word of the
+    current generation with the grid's NoveltyScorer.
+     */
+    protected double scoreNeighborhoods(int row, int w, long nonEmpty) {
+        int rowStart = 1 + row * wordsPerRow;
+        double score = 0;
+
+        while (nonEmpty != 0) {
+            int col = (w << 6) + Long.numberOfTrailingZeros(nonEmpty);
+            nonEmpty &= nonEmpty - 1;
+
+            int neighborhood = (rowWindow(rowStart - wordsPerRow, col) << 6)
+                    | (rowWindow(rowStart, col) << 3)
+                    | rowWindow(rowStart + wordsPerRow, col);
+            score += scorer.score(neighborhood, row * gridWidth + col);
+        }
+        return score;
+    }
+
+    /*
+    Returns the three cells centered on col of the row starting at rowStart,
+    with the leftmost cell as the high bit.
+     */
+    private int rowWindow(int rowStart, int col) {
+        int bit = (col - 1) & 63;
+        int i = rowStart + ((col - 1) >>> 6);
+        long bits = cellWords[i] >>> bit;
+        if (bit > 61) {
+            bits |= cellWords[i + 1] << (64 - bit);
+        }
+        return REVERSE_THREE_BITS[(int) bits & 7];
+    }
+
+    /*
+    Prints out the current grid of living and dead cells in the same format
+    as cellGrid.printGrid.
+     */
+    public void printGrid() {
+        System.out.println();
+
+        System.out.println(new String(new char[gridWidth]).replace("\0", "\u25AB "));
+        for (int row = 1; row < gridHeight -1; row++) {
+            String curRowString = "\u25AB ";
+            for (int col = 1; col < gridWidth -1; col++) {
+                if (getCell(row, col)) {
+                    curRowString += "\u25A0 ";
+                } else {
+                    curRowString += "\u25A1 ";
+                }
+            }
+            System.out.println(curRowString + "\u25AB");
+        }
+        System.out.println(new String(new char[gridWidth]).replace("\0", "\u25AB "));
+    }
+}
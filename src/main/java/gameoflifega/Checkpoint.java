@@ -0,0 +1,203 @@
+/*
+Checkpoint class holds everything an EvolutionaryAgent needs to carry on a
+run from the start of a generation exactly as if it had never stopped: the
+population and its scores, the generation counter, the hypermutation state
+and the state of the random numbers. The fitness cache is left out; it only
+saves time, and a resumed run scores the same without it.
+
+On disk a checkpoint is a header followed by every score and then every
+configuration's cells, packed 64 to a long with no padding. It is written to
+a temporary file next to the checkpoint, forced to disk and then renamed over
+the old checkpoint in one atomic step, so a crash part way through leaves the
+last checkpoint whole. Checkpoints of 1 MB or more are written and read
+through a memory-mapped file instead of a heap buffer, so a large population
+goes straight from the configurations into the page cache.
+ */
+
+package gameoflifega;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+class Checkpoint {
+    private static final int MAGIC = 0x474F4C43;
+    private static final int VERSION = 1;
+    private static final long MAP_THRESHOLD = 1 << 20;
+
+    // Instance Variables
+    int gridHeight;
+    int gridWidth;
+    int popSize;
+    int numGens;
+    int numGameGens;
+    int generation;
+    String ruleString;
+    boolean withHyperMutation;
+    int mutationChance;
+    int crossoverChance;
+    double oldAvgFitness;
+    boolean hyperMutationTriggered;
+    int hyperMutationTimer;
+    long randomSeed;
+    long randomGamma;
+    Configuration[] population;
+
+    /*
+    Writes the checkpoint to fileName, replacing any checkpoint there.
+     */
+    void write(String fileName) throws IOException {
+        Path target = Paths.get(fileName).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        byte[] rule = ruleString.getBytes(StandardCharsets.UTF_8);
+        int headerSize = headerSize(rule.length);
+        long size = headerSize + popSize * (8L + 8L * population[0].packedLength());
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("A checkpoint of " + size + " bytes is too large to write");
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer;
+            if (size >= MAP_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+            }
+            writeHeader(buffer, rule);
+
+            DoubleBuffer scores = buffer.slice().asDoubleBuffer();
+            for (int i = 0; i < popSize; i++) {
+                scores.put(population[i].getScore());
+            }
+            buffer.position(headerSize + 8 * popSize);
+            LongBuffer cells = buffer.slice().asLongBuffer();
+            for (int i = 0; i < popSize; i++) {
+                population[i].packCells(cells);
+            }
+
+            if (buffer instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) buffer).force();
+            } else {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /*
+    Reads a checkpoint that write wrote, with a newly allocated population.
+     */
+    static Checkpoint read(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(fileName + " is too large to be a checkpoint");
+            }
+            ByteBuffer buffer;
+            if (size >= MAP_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException(fileName + " ended early");
+                    }
+                }
+                buffer.flip();
+            }
+
+            Checkpoint checkpoint = new Checkpoint();
+            try {
+                int headerSize = checkpoint.readHeader(buffer, fileName);
+                int packedLength = new Configuration(checkpoint.gridHeight, checkpoint.gridWidth).packedLength();
+                long expectedSize = headerSize + checkpoint.popSize * (8L + 8L * packedLength);
+                if (size != expectedSize) {
+                    throw new IOException(fileName + " is " + size + " bytes, but its header says " + expectedSize);
+                }
+
+                DoubleBuffer scores = buffer.slice().asDoubleBuffer();
+                buffer.position(headerSize + 8 * checkpoint.popSize);
+                LongBuffer cells = buffer.slice().asLongBuffer();
+                checkpoint.population = new Configuration[checkpoint.popSize];
+                for (int i = 0; i < checkpoint.popSize; i++) {
+                    Configuration config = new Configuration(checkpoint.gridHeight, checkpoint.gridWidth);
+                    config.setScore(scores.get());
+                    config.unpackCells(cells);
+                    checkpoint.population[i] = config;
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException(fileName + " ended early", e);
+            }
+            return checkpoint;
+        }
+    }
+
+    private static int headerSize(int ruleLength) {
+        return 4 * 8 + 2 + ruleLength + 1 + 4 + 4 + 8 + 1 + 4 + 8 + 8;
+    }
+
+    private void writeHeader(ByteBuffer buffer, byte[] rule) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(gridHeight);
+        buffer.putInt(gridWidth);
+        buffer.putInt(popSize);
+        buffer.putInt(numGens);
+        buffer.putInt(numGameGens);
+        buffer.putInt(generation);
+        buffer.putShort((short) rule.length);
+        buffer.put(rule);
+        buffer.put((byte) (withHyperMutation ? 1 : 0));
+        buffer.putInt(mutationChance);
+        buffer.putInt(crossoverChance);
+        buffer.putDouble(oldAvgFitness);
+        buffer.put((byte) (hyperMutationTriggered ? 1 : 0));
+        buffer.putInt(hyperMutationTimer);
+        buffer.putLong(randomSeed);
+        buffer.putLong(randomGamma);
+    }
+
+    /*
+    Reads the header into this checkpoint and returns its size in bytes.
+     */
+    private int readHeader(ByteBuffer buffer, String fileName) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException(fileName + " is not a checkpoint");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(fileName + " is a version " + version + " checkpoint, not version " + VERSION);
+        }
+        gridHeight = buffer.getInt();
+        gridWidth = buffer.getInt();
+        popSize = buffer.getInt();
+        numGens = buffer.getInt();
+        numGameGens = buffer.getInt();
+        generation = buffer.getInt();
+        if (gridHeight < 1 || gridWidth < 1 || popSize < 1) {
+            throw new IOException(fileName + " has a bad header");
+        }
+        byte[] rule = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(rule);
+        ruleString = new String(rule, StandardCharsets.UTF_8);
+        withHyperMutation = buffer.get() != 0;
+        mutationChance = buffer.getInt();
+        crossoverChance = buffer.getInt();
+        oldAvgFitness = buffer.getDouble();
+        hyperMutationTriggered = buffer.get() != 0;
+        hyperMutationTimer = buffer.getInt();
+        randomSeed = buffer.getLong();
+        randomGamma = buffer.getLong();
+        if ((randomGamma & 1) == 0) {
+            throw new IOException(fileName + " has a bad random number state");
+        }
+        return headerSize(rule.length);
+    }
+}
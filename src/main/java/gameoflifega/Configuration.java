@@ -0,0 +1,280 @@
+/*
+Configuration class stores a starting configuration of living and dead cells
+in a user-defined matrix. Used for evolutionary algorithm evolving starting
+configurations for Conway's Game of Life.
+
+Author: Ryan Gorey
+
+Last updated: 6/2/17
+
+The cells are packed 64 to a long, each row starting on a word of its own, so
+copies are array copies and crossover swaps whole words under a mask.
+ */
+
+package gameoflifega;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public class Configuration implements Comparable<Configuration>{
+    private long[] cells;
+    private int matrixHeight = 16;
+    private int matrixWidth = 16;
+    private int wordsPerRow;
+    private double score = 0;
+
+    public Configuration() {
+        wordsPerRow = (matrixWidth + 63) / 64;
+        cells = new long[matrixHeight * wordsPerRow];
+    }
+
+    public Configuration(int matrixHeight, int matrixWidth) {
+        this.matrixHeight = matrixHeight;
+        this.matrixWidth = matrixWidth;
+        wordsPerRow = (matrixWidth + 63) / 64;
+        cells = new long[matrixHeight * wordsPerRow];
+    }
+
+    /*
+    Orders configurations best first: a higher score comes before a lower
+    one, and equal scores compare as equal.
+     */
+    public int compareTo(Configuration otherConfig) {
+        return Double.compare(otherConfig.getScore(), this.score);
+    }
+
+    public void mutation(int mutationChance) {
+        mutation(mutationChance, ThreadLocalRandom.current());
+    }
+
+    /*
+    Gives each cell a mutationChance percent chance of being set to a random
+    state, drawing from randGen. Instead of a draw per cell, it draws the
+    distance to the next mutated cell, so the number of draws grows with the
+    number of mutations rather than with the grid.
+     */
+    public void mutation(int mutationChance, RandomGenerator randGen) {
+        int numCells = matrixHeight * matrixWidth;
+        for (int cell = nextCell(-1, mutationChance, randGen); cell < numCells;
+                cell = nextCell(cell, mutationChance, randGen)) {
+            setCell(cell / matrixWidth, cell % matrixWidth, randGen.nextBoolean());
+        }
+    }
+
+    /*
+    Returns the index, counting cells row by row, of the next cell after cell
+    that a percentChance percent chance picks; the gap is geometrically
+    distributed. Returns Integer.MAX_VALUE if no cell is ever picked.
+     */
+    private static int nextCell(int cell, int percentChance, RandomGenerator randGen) {
+        if (percentChance <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        if (percentChance >= 100) {
+            return cell + 1;
+        }
+        // 1 - nextDouble() is in (0, 1], so the log is finite.
+        double skip = Math.floor(Math.log(1 - randGen.nextDouble()) / Math.log(1 - percentChance / 100.0));
+        return (int) Math.min(Integer.MAX_VALUE, cell + 1 + skip);
+    }
+
+    public void deepCopy(Configuration copyFrom) {
+        System.arraycopy(copyFrom.cells, 0, cells, 0, cells.length);
+        this.setScore(copyFrom.getScore());
+    }
+
+    public void setRandomConfiguration(int cellChanceToLive)  {
+        setRandomConfiguration(cellChanceToLive, ThreadLocalRandom.current());
+    }
+
+    /*
+    Sets every cell, living with a cellChanceToLive percent chance, drawing
+    from randGen. Like mutation, it only draws for the cells that live.
+     */
+    public void setRandomConfiguration(int cellChanceToLive, RandomGenerator randGen)  {
+        if (cellChanceToLive > 100) {
+            cellChanceToLive = 100;
+        } else {
+            if (cellChanceToLive < 0) {
+                cellChanceToLive = 0;
+            }
+        }
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = 0;
+        }
+        int numCells = matrixHeight * matrixWidth;
+        for (int cell = nextCell(-1, cellChanceToLive, randGen); cell < numCells;
+                cell = nextCell(cell, cellChanceToLive, randGen)) {
+            setCell(cell / matrixWidth, cell % matrixWidth, true);
+        }
+    }
+
+    public void setConfiguration(Configuration config) {
+        for (int row = 0; row < matrixHeight; row++) {
+            for (int col = 0; col < matrixWidth; col++) {
+                setCell(row, col, config.getCell(row, col));
+            }
+        }
+    }
+
+    public void setCell(int row, int col, boolean status) {
+        int word = row * wordsPerRow + (col >>> 6);
+        if (status) {
+            cells[word] |= 1L << col;
+        } else {
+            cells[word] &= ~(1L << col);
+        }
+    }
+
+    public boolean getCell(int row, int col) {
+        return (cells[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public void setCellRegion(int topRowInd, int leftColInd, int height, int width, boolean[][] region) {
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                setCell(topRowInd + row, leftColInd + col, region[row][col]);
+            }
+
+        }
+    }
+
+    public boolean[][] getCellRegion(int topRowInd, int leftColInd, int height, int width) {
+        boolean[][] region = new boolean[height][width];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                region[row][col] = getCell(topRowInd + row, leftColInd + col);
+            }
+        }
+        return region;
+    }
+
+    /*
+    Swaps a rectangular region of cells with the same region of another
+    configuration of the same size, in place. Each word of a row is swapped
+    with a masked XOR, so the cells outside the region stay put.
+     */
+    public void swapCellRegion(Configuration other, int topRowInd, int leftColInd, int height, int width) {
+        if (width <= 0) {
+            return;
+        }
+        int firstWord = leftColInd >>> 6;
+        int lastWord = (leftColInd + width - 1) >>> 6;
+        for (int row = topRowInd; row < topRowInd + height; row++) {
+            for (int word = firstWord; word <= lastWord; word++) {
+                long mask = -1L;
+                if (word == firstWord) {
+                    mask &= -1L << leftColInd;
+                }
+                if (word == lastWord) {
+                    mask &= -1L >>> (63 - ((leftColInd + width - 1) & 63));
+                }
+                int index = row * wordsPerRow + word;
+                long diff = (cells[index] ^ other.cells[index]) & mask;
+                cells[index] ^= diff;
+                other.cells[index] ^= diff;
+            }
+        }
+    }
+
+    /*
+    Returns how many longs hold the cells, wordsPerRow to a row. The bits
+    past the end of a row are always 0, so the words can be hashed as they
+    are.
+     */
+    int wordCount() {
+        return cells.length;
+    }
+
+    long getWord(int index) {
+        return cells[index];
+    }
+
+    /*
+    Returns how many longs packCells writes: the cells row by row, 64 to a
+    long, with no padding at the row ends.
+     */
+    int packedLength() {
+        return (int) (((long) matrixHeight * matrixWidth + 63) / 64);
+    }
+
+    /*
+    Writes the cells to out, packed as packedLength describes. Each row is
+    shifted in a word at a time rather than a cell at a time.
+     */
+    void packCells(LongBuffer out) {
+        long word = 0;
+        int bits = 0;
+        for (int row = 0; row < matrixHeight; row++) {
+            int remaining = matrixWidth;
+            for (int rowWord = 0; rowWord < wordsPerRow; rowWord++) {
+                int n = Math.min(64, remaining);
+                long chunk = cells[row * wordsPerRow + rowWord];
+                word |= chunk << bits;
+                if (bits + n >= 64) {
+                    out.put(word);
+                    // The high bits of chunk that did not fit start the next word.
+                    word = bits == 0 ? 0 : chunk >>> (64 - bits);
+                    bits = bits + n - 64;
+                } else {
+                    bits += n;
+                }
+                remaining -= n;
+            }
+        }
+        if (bits > 0) {
+            out.put(word);
+        }
+    }
+
+    /*
+    Reads the cells back from in, as packCells wrote them.
+     */
+    void unpackCells(LongBuffer in) {
+        long word = 0;
+        int bits = 0;
+        for (int row = 0; row < matrixHeight; row++) {
+            int remaining = matrixWidth;
+            for (int rowWord = 0; rowWord < wordsPerRow; rowWord++) {
+                int n = Math.min(64, remaining);
+                long mask = n == 64 ? -1L : (1L << n) - 1;
+                long chunk;
+                if (bits >= n) {
+                    chunk = word & mask;
+                    word = n == 64 ? 0 : word >>> n;
+                    bits -= n;
+                } else {
+                    long next = in.get();
+                    chunk = (word | (next << bits)) & mask;
+                    int used = n - bits;
+                    word = used == 64 ? 0 : next >>> used;
+                    bits = 64 - used;
+                }
+                cells[row * wordsPerRow + rowWord] = chunk;
+                remaining -= n;
+            }
+        }
+    }
+
+    public int getHeight() {
+        return matrixHeight;
+    }
+
+    public int getWidth() {
+        return matrixWidth;
+    }
+
+    public void setRandomConfiguration()  {
+        setRandomConfiguration(30);
+    }
+
+    public double getScore() {
+        return this.score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+CycleDetector class spots a game that has settled into a still life, an
+oscillator or an empty grid, so the rest of its score can be worked out
+instead of simulated.
+
+runGame starts a new scoring epoch every generation, so the score of a
+generation depends only on the grid it starts from. Once a grid state repeats,
+every later generation repeats the generations between the two sightings, and
+so do their scores.
+
+The detector keeps the hashes of the last WINDOW grid states in a ring
+buffer, together with the scores of the generations that started from them,
+and a copy of just one state. When a state's hash matches the hash from
+period generations back and no copy is waiting, that state is copied. Period
+generations later the state then is compared with the copy word for word: if
+they match, the game has entered a cycle, and if not, the hashes collided and
+the copy is dropped for the next match. So a hash collision can never change
+a score, and a large grid costs one copy of its state rather than WINDOW of
+them, at the price of stepping one more period before the cycle is skipped.
+ */
+
+package gameoflifega;
+
+public class CycleDetector {
+    // Oscillators with periods up to this long are caught.
+    public static final int WINDOW = 32;
+
+    // Instance Variables
+    private long[] snapshot;
+    // The number of the state held in snapshot, or -1 for none.
+    private int snapshotState = -1;
+    // The period the snapshot's hash matched at, so when it should come round again.
+    private int snapshotPeriod;
+    private long[] hashes = new long[WINDOW];
+    private double[] scores = new double[WINDOW];
+    private int numStates = 0;
+
+    /*
+    Returns a CycleDetector object.
+
+    @param stateWords    the int number of longs a packed grid state takes.
+    @return the CycleDetector object
+     */
+    public CycleDetector(int stateWords) {
+        snapshot = new long[stateWords];
+    }
+
+    /*
+    Forgets every state seen, ready for a new game.
+     */
+    public void reset() {
+        numStates = 0;
+        snapshotState = -1;
+    }
+
+    /*
+    Checks the state the next generation starts from against the states seen
+    in the window. Unless it completes a cycle, its hash is stored, and its
+    score must then be given to recordScore once the generation has been
+    stepped.
+
+    @param state    the packed grid state; only its first stateWords words are read.
+    @return the period of the cycle the game has entered, or 0 if the state is new
+     */
+    public int checkState(long[] state) {
+        int stateWords = snapshot.length;
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < stateWords; i++) {
+            hash = (hash ^ state[i]) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+
+        if (snapshotState >= 0 && numStates - snapshotState == snapshotPeriod) {
+            if (sameState(snapshot, state, stateWords)) {
+                return snapshotPeriod;
+            }
+            snapshotState = -1;
+        }
+
+        if (snapshotState < 0) {
+            for (int period = 1; period <= Math.min(numStates, WINDOW); period++) {
+                if (hashes[(numStates - period) % WINDOW] == hash) {
+                    // Keep this state to confirm the cycle against when it comes round again.
+                    System.arraycopy(state, 0, snapshot, 0, stateWords);
+                    snapshotState = numStates;
+                    snapshotPeriod = period;
+                    break;
+                }
+            }
+        }
+
+        hashes[numStates % WINDOW] = hash;
+        return 0;
+    }
+
+    /*
+    Records the score of the generation that started from the state last
+    stored by checkState.
+     */
+    public void recordScore(double score) {
+        scores[numStates % WINDOW] = score;
+        numStates++;
+    }
+
+    /*
+    Returns the total score of the remaining generations of a game that has
+    entered a cycle, found by checkState.
+
+    @param period            the period returned by checkState.
+    @param remainingGens     the int number of generations left to play,
+                             including the one checkState was called for.
+    @return the score those generations would add up to
+     */
+    public double cycleScore(int period, int remainingGens) {
+        double periodScore = 0;
+        double partialScore = 0;
+        for (int i = 0; i < period; i++) {
+            double score = scores[(numStates - period + i) % WINDOW];
+            periodScore += score;
+            if (i < remainingGens % period) {
+                partialScore += score;
+            }
+        }
+        return (remainingGens / period) * periodScore + partialScore;
+    }
+
+    private static boolean sameState(long[] stored, long[] state, int stateWords) {
+        for (int i = 0; i < stateWords; i++) {
+            if (stored[i] != state[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
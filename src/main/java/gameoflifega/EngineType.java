@@ -0,0 +1,70 @@
+/*
+EngineType lists the LifeEngine implementations patterns can be scored with.
+The grid engines all give the same scores and differ only in speed and in
+what they need to run. HASHLIFE plays on an unbounded plane and samples the
+score at checkpoints, for fitness over thousands of generations.
+ */
+
+package gameoflifega;
+
+public enum EngineType {
+    // The reference engine, one boolean per cell.
+    CELL_GRID,
+    // Rows packed into 64-bit words.
+    BITBOARD,
+    // BitboardGrid stepped with the JDK Vector API; see src/vector/java.
+    VECTOR,
+    // Only the live cells, for large grids that are mostly dead.
+    SPARSE,
+    // HashLife on an unbounded plane, scored at checkpoints.
+    HASHLIFE;
+
+    /*
+    Returns a new engine of this type. If the vector engine cannot be loaded
+    (the class was not compiled, or the JVM was started without the
+    jdk.incubator.vector module) a BitboardGrid is returned instead.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by.
+    @return the new engine
+     */
+    public LifeEngine create(int gridHeight, int gridWidth, LifeRule rule) {
+        switch (this) {
+            case CELL_GRID:
+                return new cellGrid(gridHeight, gridWidth, rule);
+            case SPARSE:
+                return new SparseGrid(gridHeight, gridWidth, rule);
+            case HASHLIFE:
+                return new HashLifeEngine(rule);
+            case VECTOR:
+                LifeEngine vectorGrid = createVectorGrid(gridHeight, gridWidth, rule);
+                if (vectorGrid != null) {
+                    return vectorGrid;
+                }
+                return new BitboardGrid(gridHeight, gridWidth, rule);
+            default:
+                return new BitboardGrid(gridHeight, gridWidth, rule);
+        }
+    }
+
+    /*
+    Returns whether create will really give an engine of this type.
+     */
+    public boolean isAvailable() {
+        return this != VECTOR || createVectorGrid(1, 1, LifeRule.CONWAY) != null;
+    }
+
+    private static LifeEngine createVectorGrid(int gridHeight, int gridWidth, LifeRule rule) {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return null;
+        }
+        try {
+            Class<?> vectorGrid = Class.forName("gameoflifega.VectorGrid");
+            return (LifeEngine) vectorGrid.getConstructor(int.class, int.class, LifeRule.class)
+                    .newInstance(gridHeight, gridWidth, rule);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,1111 @@
+/*
+EvolutionaryAgent class applies an evolutionary algorithm to Conway's Game of
+Life to evolve interesting patterns. This class manages the population,
+selection, and mutation.
+
+Last updated: 6/2/17
+
+Author: Ryan Gorey
+ */
+
+package gameoflifega;
+
+import java.util.Random;
+import java.lang.Math;
+import java.io.*;
+import java.text.*;
+import java.util.Calendar;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class EvolutionaryAgent {
+    private cellGrid myGrid;
+    private LifeEngine evalGrid;
+    private Configuration[] population;
+    private Configuration[] nextPopulation;
+    private double[] rankScores;
+    private SplitMixRandom randGen = new SplitMixRandom();
+
+    private int gridHeight = 16;
+    private int gridWidth = 16;
+
+    private int popSize = 200;
+    private int numGens = 100;
+    private int numGameGens = 50;
+    private int numElites = 20;
+    private int tournamentSize = 40;
+
+    private int mutationChance = 5;
+    private int crossoverChance = 5;
+    private double hyperMutationPercentThresh = 0.9;
+    private LifeRule rule = LifeRule.CONWAY;
+    private EngineType engineType = EngineType.BITBOARD;
+    private SelectionStrategy selectionStrategy = new TournamentSelection(tournamentSize);
+
+    private int numWorkers = 1;
+    private ExecutorService workerPool;
+    private ThreadLocal<LifeEngine> workerGrid;
+
+    private boolean batchEvaluation = false;
+    private BatchWorker batchWorker;
+    private ThreadLocal<BatchWorker> workerBatch;
+    private double[] batchScores;
+
+    private FitnessCache fitnessCache = new FitnessCache(4096);
+
+    private double oldAvgFitness = 1;
+    private boolean hyperMutationTriggered = false;
+    private int hyperMutationTimer = 0;
+
+    private GenerationListener[] generationListeners = new GenerationListener[0];
+    private GenerationStats generationStats = new GenerationStats();
+    private GenerationEvent generationEvent;
+    private double[] statsScores;
+    private boolean recordingGeneration = false;
+    private int generation = 0;
+
+    private String checkpointFile;
+    private int checkpointInterval = 10;
+
+    public EvolutionaryAgent() {
+        myGrid = new cellGrid(gridHeight, gridWidth);
+        evalGrid = new BitboardGrid(gridHeight, gridWidth);
+        generateStartingPopulation();
+    }
+
+    public EvolutionaryAgent(int numGens) {
+        this.numGens = numGens;
+        myGrid = new cellGrid(gridHeight, gridWidth);
+        evalGrid = new BitboardGrid(gridHeight, gridWidth);
+        generateStartingPopulation();
+    }
+
+    public EvolutionaryAgent(int gridHeight, int gridWidth) {
+        this.gridHeight = gridHeight;
+        this.gridWidth = gridWidth;
+        myGrid = new cellGrid(gridHeight, gridWidth);
+        evalGrid = new BitboardGrid(gridHeight, gridWidth);
+        generateStartingPopulation();
+    }
+
+    public EvolutionaryAgent(int gridHeight, int gridWidth, int popSize) {
+        this.gridHeight = gridHeight;
+        this.gridWidth = gridWidth;
+        this.popSize = popSize;
+        myGrid = new cellGrid(gridHeight, gridWidth);
+        evalGrid = new BitboardGrid(gridHeight, gridWidth);
+        generateStartingPopulation();
+    }
+
+    /*
+    Sets the Life-like rule patterns are evolved for, such as "B36/S23".
+
+    @param ruleString    the B/S rule string.
+     */
+    public void setRule(String ruleString) {
+        rule = LifeRule.forString(ruleString);
+        myGrid = new cellGrid(gridHeight, gridWidth, rule);
+        evalGrid = engineType.create(gridHeight, gridWidth, rule);
+        batchWorker = null;
+        workerGrid = null;
+        workerBatch = null;
+        if (fitnessCache != null) {
+            fitnessCache.clear();
+        }
+    }
+
+    /*
+    Sets how many scores the fitness cache keeps. Configurations whose score
+    is cached are not simulated again.
+
+    @param capacity    the int number of scores to keep; 0 turns the cache off.
+     */
+    public void setFitnessCacheCapacity(int capacity) {
+        if (capacity > 0) {
+            fitnessCache = new FitnessCache(capacity);
+        } else {
+            fitnessCache = null;
+        }
+    }
+
+    /*
+    Returns the fitness cache, whose hit, miss and eviction counters show how
+    many games it saved, or null if it is turned off.
+     */
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /*
+    Sets which LifeEngine scores the population. The grid engines all give
+    the same scores; EngineType.VECTOR falls back to BITBOARD when the vector
+    module is not available. EngineType.HASHLIFE scores long games on an
+    unbounded plane instead, so the fitness cache is cleared.
+
+    @param engineType    the kind of engine to score patterns with.
+     */
+    public void setEngineType(EngineType engineType) {
+        this.engineType = engineType;
+        evalGrid = engineType.create(gridHeight, gridWidth, rule);
+        workerGrid = null;
+        if (fitnessCache != null) {
+            fitnessCache.clear();
+        }
+    }
+
+    /*
+    Seeds the random numbers every part of the algorithm draws from:
+    initialization, selection, mutation and crossover. Two agents set up the
+    same way and given the same seed evolve exactly the same patterns, with
+    any number of workers, since scoring draws no random numbers.
+
+    @param seed    the long seed.
+     */
+    public void setSeed(long seed) {
+        randGen = new SplitMixRandom(seed);
+    }
+
+    /*
+    Makes the agent draw from a stream split off a master stream, such as one
+    island's share of an IslandModel seed.
+     */
+    void setRandomStream(SplitMixRandom randomStream) {
+        randGen = randomStream;
+    }
+
+    /*
+    Sets how the configurations after the elites are picked for the next
+    generation. The default is a TournamentSelection of 40.
+
+    @param selectionStrategy    e.g. new RankSelection() or new RouletteSelection();
+                                not shared with another agent.
+     */
+    public void setSelectionStrategy(SelectionStrategy selectionStrategy) {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    /*
+    Sets how many generations each game is played for when a pattern is
+    scored, e.g. several thousand with EngineType.HASHLIFE.
+
+    @param numGameGens    the int number of generations per game.
+     */
+    public void setNumGameGens(int numGameGens) {
+        this.numGameGens = numGameGens;
+        if (fitnessCache != null) {
+            fitnessCache.clear();
+        }
+    }
+
+    /*
+    Sets whether the population is scored 64 configurations at a time with a
+    BitSlicedEvaluator instead of one at a time. The scores are the same
+    either way. It has no effect with EngineType.HASHLIFE.
+
+    @param batchEvaluation    true to score the population in bit-sliced batches.
+     */
+    public void setBatchEvaluation(boolean batchEvaluation) {
+        this.batchEvaluation = batchEvaluation;
+    }
+
+    /*
+    Sets how many threads score the population each generation. Each worker
+    thread scores its share of the population on its own grid, so the scores
+    are exactly those of the serial loop.
+
+    @param numWorkers    the int number of worker threads; 1 scores serially.
+     */
+    public void setNumWorkers(int numWorkers) {
+        shutdownWorkers();
+        this.numWorkers = Math.max(1, numWorkers);
+    }
+
+    /*
+    Stops the worker threads, if any. They are started again the next time the
+    population is scored in parallel.
+     */
+    public void shutdownWorkers() {
+        if (workerPool != null) {
+            workerPool.shutdown();
+            workerPool = null;
+        }
+        workerGrid = null;
+        workerBatch = null;
+    }
+
+    /*
+    Adds a listener that is told every generation's telemetry. With no
+    listener and no flight recording of GenerationEvent, nothing is timed or
+    counted.
+
+    @param listener    e.g. a TelemetryFileSink.
+     */
+    public void addGenerationListener(GenerationListener listener) {
+        GenerationListener[] listeners = Arrays.copyOf(generationListeners, generationListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        generationListeners = listeners;
+    }
+
+    public void removeGenerationListener(GenerationListener listener) {
+        for (int i = 0; i < generationListeners.length; i++) {
+            if (generationListeners[i] == listener) {
+                GenerationListener[] listeners = new GenerationListener[generationListeners.length - 1];
+                System.arraycopy(generationListeners, 0, listeners, 0, i);
+                System.arraycopy(generationListeners, i + 1, listeners, i, listeners.length - i);
+                generationListeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /*
+    Makes evolvePattern write a checkpoint every checkpointInterval
+    generations, from which resumePattern can carry the run on.
+
+    @param fileName              the checkpoint file, replaced each time; null
+                                 turns checkpoints off.
+    @param checkpointInterval    the int number of generations between checkpoints.
+     */
+    public void setCheckpoint(String fileName, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoints need at least one generation between them: " + checkpointInterval);
+        }
+        this.checkpointFile = fileName;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /*
+    Usage: java -cp target/classes gameoflifega.EvolutionaryAgent [checkpoint]
+
+    Evolves a pattern, checkpointing every 10 generations to
+    datafile/checkpoint.bin; given a checkpoint, it carries that run on.
+     */
+    public static void main(String args[]) throws IOException {
+        EvolutionaryAgent myAgent = new EvolutionaryAgent(200);
+        myAgent.setNumWorkers(Runtime.getRuntime().availableProcessors());
+        myAgent.setCheckpoint("datafile/checkpoint.bin", 10);
+        Configuration bestPattern;
+        if (args.length > 0) {
+            bestPattern = myAgent.resumePattern(args[0]);
+        } else {
+            bestPattern = myAgent.evolvePattern(true);
+        }
+        myAgent.displayPattern(bestPattern);
+        System.out.println(bestPattern.getScore());
+        System.out.println(myAgent.getFitnessCache());
+        myAgent.myGrid.viewSimulation(true, 50, bestPattern);
+
+        int numRuns = 15;
+        //baseCaseTesting();
+        //knownPatternTesting();
+        //runTest(numRuns);
+        //testHypermutation(numRuns);
+    }
+
+    public static void runTest(int numRuns) {
+        int[] genNumList = {10, 50, 100, 200};
+        double[] averageFitnesses = new double[4];
+        EvolutionaryAgent testAgent;
+
+        System.out.println("========================\nTest 1: Vanilla GA");
+        for (int genNumIndex = 0; genNumIndex < 4; genNumIndex++) {
+            double bestFitnessTotal = 0;
+            testAgent = new EvolutionaryAgent(genNumList[genNumIndex]);
+            for (int run = 0; run < numRuns; run++) {
+                System.out.println("Run " + String.valueOf(run + 1) + " for gen. size of " +
+                        String.valueOf(genNumList[genNumIndex]));
+                Configuration bestConfig = testAgent.evolvePattern(true);
+                bestFitnessTotal += bestConfig.getScore();
+            }
+            averageFitnesses[genNumIndex] = bestFitnessTotal/20;
+            System.out.println(averageFitnesses[genNumIndex]);
+        }
+        System.out.println("========================");
+
+        for (int i = 0; i < 4; i++) {
+            System.out.println("When gen. size = " + String.valueOf(genNumList[i]) +
+                    " the avg. best fitness was: " + String.valueOf(averageFitnesses[i]));
+        }
+    }
+
+    public static void testHypermutation(int numRuns) {
+        double[] bestFitnesses = new double[15];
+        EvolutionaryAgent testAgent = new EvolutionaryAgent(200);
+        Configuration bestOverallConfig = new Configuration(testAgent.gridHeight, testAgent.gridWidth);
+
+        System.out.println("========================\nTest 3: Hypermutation");
+        for (int run = 0; run < numRuns; run++) {
+            System.out.println("Run " + String.valueOf(run + 1));
+            Configuration bestConfig = testAgent.evolvePattern(true);
+            bestFitnesses[run] = bestConfig.getScore();
+            System.out.println("The best fitness of Run " + String.valueOf(run + 1) +
+                    " is: " + String.valueOf(bestFitnesses[run]));
+            if (bestOverallConfig.getScore() < bestConfig.getScore()) {
+                bestOverallConfig.deepCopy(bestConfig);
+            }
+        }
+        System.out.println("========================");
+
+        double totalFitness = 0;
+        for (int i = 0; i < 15; i++) {
+            totalFitness += bestFitnesses[i];
+            System.out.println(bestFitnesses[i]);
+        }
+        System.out.println("The average of the best fitnesses is " + String.valueOf(totalFitness/15));
+        testAgent.displayPattern(bestOverallConfig);
+        System.out.println(bestOverallConfig.getScore());
+        testAgent.myGrid.viewSimulation(true, 50, bestOverallConfig);
+    }
+
+    public void displayPattern(Configuration config) {
+        myGrid.setStartingConfiguration(config);
+        myGrid.printGrid();
+    }
+
+    /*
+    Allocates the two pools the population lives in: each generation is bred
+    from population into nextPopulation, and then the two swap roles. They
+    are kept for later runs, so only the first run allocates them.
+     */
+    private void generateStartingPopulation() {
+        if (population != null && population.length == popSize && nextPopulation != null) {
+            return;
+        }
+        population = new Configuration[popSize];
+        nextPopulation = new Configuration[popSize];
+        for (int i = 0; i < popSize; i++) {
+            population[i] = new Configuration(gridHeight, gridWidth);
+            nextPopulation[i] = new Configuration(gridHeight, gridWidth);
+        }
+    }
+
+    private void initializePopulation() {
+        for (int i = 0; i < popSize; i++) {
+            population[i].setRandomConfiguration(10, randGen);
+            population[i].setScore(0);
+        }
+    }
+
+    private double calcAvgFitness() {
+        double avgFitness = 0;
+        for (int i = 0; i < popSize; i++) {
+            avgFitness += population[i].getScore();
+        }
+        return avgFitness/popSize;
+    }
+
+    private double calculateStandardDev(double avgFitness) {
+        double sumSquares = 0;
+        for (int i = 0; i < popSize; i++) {
+            double deviation = population[i].getScore() - avgFitness;
+            sumSquares += deviation * deviation;
+        }
+        return Math.sqrt(sumSquares/popSize);
+    }
+
+    private void triggerHyperMutation() {
+        mutationChance = 20;
+        crossoverChance = 20;
+    }
+
+    private void resetVarianceOperators() {
+        mutationChance = 5;
+        crossoverChance = 5;
+    }
+
+    private Configuration evolvePattern(boolean withHyperMutation) {
+        startEvolution();
+        return evolveFrom(withHyperMutation);
+    }
+
+    /*
+    Carries on the run a checkpoint was taken of, from the generation it was
+    taken at, and returns its best configuration. The agent must have been
+    made with the same grid and population size; the rule, the number of
+    generations and the random numbers are taken from the checkpoint. The
+    run comes out exactly as it would have without stopping.
+
+    @param fileName    the checkpoint file evolvePattern wrote.
+    @return the best configuration, which is also saved to the datafile folder
+     */
+    public Configuration resumePattern(String fileName) throws IOException {
+        Checkpoint checkpoint = Checkpoint.read(fileName);
+        if (checkpoint.gridHeight != gridHeight || checkpoint.gridWidth != gridWidth || checkpoint.popSize != popSize) {
+            throw new IllegalArgumentException("The checkpoint is for a " + checkpoint.gridHeight + "x"
+                    + checkpoint.gridWidth + " grid and a population of " + checkpoint.popSize + ", not "
+                    + gridHeight + "x" + gridWidth + " and " + popSize);
+        }
+        if (!rule.toString().equals(checkpoint.ruleString)) {
+            setRule(checkpoint.ruleString);
+        }
+        if (numGameGens != checkpoint.numGameGens) {
+            setNumGameGens(checkpoint.numGameGens);
+        }
+        numGens = checkpoint.numGens;
+        generation = checkpoint.generation;
+        mutationChance = checkpoint.mutationChance;
+        crossoverChance = checkpoint.crossoverChance;
+        oldAvgFitness = checkpoint.oldAvgFitness;
+        hyperMutationTriggered = checkpoint.hyperMutationTriggered;
+        hyperMutationTimer = checkpoint.hyperMutationTimer;
+        randGen = new SplitMixRandom(checkpoint.randomSeed, checkpoint.randomGamma);
+        generateStartingPopulation();
+        population = checkpoint.population;
+        return evolveFrom(checkpoint.withHyperMutation);
+    }
+
+    /*
+    Runs the generations from the current one up to numGens, checkpointing
+    along the way if checkpoints are on, and scores and saves the best
+    configuration.
+     */
+    private Configuration evolveFrom(boolean withHyperMutation) {
+        while (generation < numGens) {
+            evaluateGeneration(withHyperMutation);
+            breedNextGeneration();
+            if (checkpointFile != null && generation % checkpointInterval == 0 && generation < numGens) {
+                try {
+                    saveCheckpoint(checkpointFile, withHyperMutation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write a checkpoint to " + checkpointFile, e);
+                }
+            }
+        }
+
+        Configuration bestConfig = finishEvolution();
+        saveConfiguration(bestConfig);
+
+        return bestConfig;
+    }
+
+    /*
+    Writes a checkpoint of the run as it stands between two generations,
+    after breedNextGeneration and before the next evaluateGeneration.
+     */
+    void saveCheckpoint(String fileName, boolean withHyperMutation) throws IOException {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.gridHeight = gridHeight;
+        checkpoint.gridWidth = gridWidth;
+        checkpoint.popSize = popSize;
+        checkpoint.numGens = numGens;
+        checkpoint.numGameGens = numGameGens;
+        checkpoint.generation = generation;
+        checkpoint.ruleString = rule.toString();
+        checkpoint.withHyperMutation = withHyperMutation;
+        checkpoint.mutationChance = mutationChance;
+        checkpoint.crossoverChance = crossoverChance;
+        checkpoint.oldAvgFitness = oldAvgFitness;
+        checkpoint.hyperMutationTriggered = hyperMutationTriggered;
+        checkpoint.hyperMutationTimer = hyperMutationTimer;
+        checkpoint.randomSeed = randGen.getSeed();
+        checkpoint.randomGamma = randGen.getGamma();
+        checkpoint.population = population;
+        checkpoint.write(fileName);
+    }
+
+    /*
+    Sets up a random starting population. evolvePattern calls this and the
+    two methods after it; IslandModel calls them itself, so it can move
+    individuals between islands in between.
+     */
+    void startEvolution() {
+        generateStartingPopulation();
+        initializePopulation();
+        oldAvgFitness = 1;
+        hyperMutationTriggered = false;
+        hyperMutationTimer = 0;
+        generation = 0;
+    }
+
+    /*
+    Scores the population, brings its elites to the front, best first, and
+    optionally triggers hypermutation for the next round of variation. While
+    a listener or flight recording wants telemetry, it also times the scoring
+    and records the spread of the scores.
+     */
+    void evaluateGeneration(boolean withHyperMutation) {
+        generationEvent = null;
+        if (GenerationEvent.isRecording()) {
+            generationEvent = new GenerationEvent();
+            generationEvent.begin();
+        }
+        recordingGeneration = generationListeners.length > 0 || generationEvent != null;
+        long evaluationStart = recordingGeneration ? System.nanoTime() : 0;
+
+        // Evaluation
+        int gamesPlayed = evaluatePopulation();
+        rankBest(numElites);
+
+        if (recordingGeneration) {
+            long nominalCellUpdates = (long) gamesPlayed * numGameGens * gridHeight * gridWidth;
+            generationStats.setEvaluation(System.nanoTime() - evaluationStart, gamesPlayed, nominalCellUpdates);
+            recordFitness();
+        }
+
+        // Optional triggered hypermutation
+        if (withHyperMutation) {
+            double newAvgFitness = calcAvgFitness();
+            if (hyperMutationTimer > 10) {
+                if (newAvgFitness < hyperMutationPercentThresh * oldAvgFitness) {
+                    triggerHyperMutation();
+                    hyperMutationTriggered = true;
+                    hyperMutationTimer = -1;
+                }
+            }
+            hyperMutationTimer++;
+            oldAvgFitness = newAvgFitness;
+        }
+    }
+
+    /*
+    Records the spread of the scored population's fitness in generationStats.
+    The scores are sorted in a scratch array, which is only done while some
+    sink is recording.
+     */
+    private void recordFitness() {
+        if (statsScores == null || statsScores.length != popSize) {
+            statsScores = new double[popSize];
+        }
+        for (int i = 0; i < popSize; i++) {
+            statsScores[i] = population[i].getScore();
+        }
+        Arrays.sort(statsScores);
+        double avgFitness = calcAvgFitness();
+        generationStats.setFitness(statsScores, popSize, avgFitness, calculateStandardDev(avgFitness));
+    }
+
+    private void publishGeneration() {
+        generationStats.setGeneration(generation);
+        GenerationListener[] listeners = generationListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].generationFinished(generationStats);
+        }
+        if (generationEvent != null) {
+            generationEvent.record(generationStats);
+            generationEvent = null;
+        }
+    }
+
+    /*
+    Replaces the population, which evaluateGeneration has scored and ranked,
+    with the next generation. The next generation is copied into the spare
+    pool, which then swaps places with the population, so nothing is
+    allocated. When the generation is being recorded, its telemetry goes out
+    to the listeners once variation is done.
+     */
+    void breedNextGeneration() {
+        long selectionStart = recordingGeneration ? System.nanoTime() : 0;
+
+        // Selection (w/ elitism)
+        cloneElites(nextPopulation);
+        selectRemainingIndividuals(numElites, nextPopulation);
+        Configuration[] temp = population;
+        population = nextPopulation;
+        nextPopulation = temp;
+
+        long variationStart = recordingGeneration ? System.nanoTime() : 0;
+
+        // Apply chance for mutation
+        applyVariationOperators(numElites/2, mutationChance, crossoverChance);
+
+        if (recordingGeneration) {
+            generationStats.setBreeding(variationStart - selectionStart, System.nanoTime() - variationStart);
+            publishGeneration();
+        }
+        generation++;
+
+        // Reset mutation operators (if using triggered hypermutation)
+        if (hyperMutationTriggered) {
+            resetVarianceOperators();
+            hyperMutationTriggered = false;
+        }
+    }
+
+    /*
+    Scores the final population and returns a copy of its best configuration,
+    which later runs will not overwrite.
+     */
+    Configuration finishEvolution() {
+        evaluatePopulation();
+        Configuration bestConfig = new Configuration(gridHeight, gridWidth);
+        bestConfig.deepCopy(findBestConfiguration());
+        return bestConfig;
+    }
+
+    /*
+    Returns copies of the numMigrants best configurations, with their scores,
+    of a population evaluateGeneration has just scored. The elites are left
+    at the front.
+     */
+    Configuration[] copyBestConfigurations(int numMigrants) {
+        rankBest(Math.max(numMigrants, numElites));
+        Configuration[] migrants = new Configuration[Math.min(numMigrants, popSize)];
+        for (int i = 0; i < migrants.length; i++) {
+            migrants[i] = new Configuration(gridHeight, gridWidth);
+            migrants[i].deepCopy(population[i]);
+        }
+        return migrants;
+    }
+
+    /*
+    Puts scored configurations from another island in place of the worst
+    ones of the population, and ranks the elites again. The elites are never
+    replaced, so at most popSize - numElites are taken.
+
+    @return the number of configurations taken
+     */
+    int replaceWorstConfigurations(Configuration[] immigrants, int numImmigrants) {
+        int taken = Math.min(numImmigrants, popSize - numElites);
+        selectBest(popSize - taken);
+        for (int i = 0; i < taken; i++) {
+            population[popSize - 1 - i].deepCopy(immigrants[i]);
+        }
+        rankBest(numElites);
+        return taken;
+    }
+
+    /*
+    Scores every configuration in the population. With more than one worker
+    the population is split into chunks that the worker pool scores in
+    parallel, each thread on its own grid. In batch mode the configurations
+    are scored 64 at a time by bit-sliced evaluators instead. Returns the
+    number of games played, which leaves out the scores the fitness cache had.
+     */
+    private int evaluatePopulation() {
+        // Bit-sliced batches play on the bounded grid, so they never stand in for HashLife.
+        boolean batchEvaluation = this.batchEvaluation && engineType != EngineType.HASHLIFE;
+        if (batchEvaluation && (batchScores == null || batchScores.length != popSize)) {
+            batchScores = new double[popSize];
+        }
+        if (numWorkers == 1) {
+            if (batchEvaluation) {
+                if (batchWorker == null) {
+                    batchWorker = new BatchWorker(gridHeight, gridWidth, rule);
+                }
+                return evaluateBatch(batchWorker, 0, popSize);
+            }
+            return evaluateRange(evalGrid, 0, popSize);
+        }
+        if (workerPool == null) {
+            workerPool = Executors.newFixedThreadPool(numWorkers, new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread worker = new Thread(task, "fitness-worker");
+                    worker.setDaemon(true);
+                    return worker;
+                }
+            });
+        }
+        if (workerGrid == null) {
+            workerGrid = ThreadLocal.withInitial(() -> engineType.create(gridHeight, gridWidth, rule));
+            workerBatch = ThreadLocal.withInitial(() -> new BatchWorker(gridHeight, gridWidth, rule));
+        }
+
+        // A few chunks per worker keeps the threads busy when some runs are slower than others.
+        // Batches are rounded up to whole words of 64 configurations.
+        int chunkSize = Math.max(1, popSize / (numWorkers * 4));
+        if (batchEvaluation) {
+            int lanes = BitSlicedEvaluator.LANES;
+            chunkSize = (chunkSize + lanes - 1) / lanes * lanes;
+        }
+        List<Future<Integer>> chunks = new ArrayList<Future<Integer>>();
+        final ThreadLocal<LifeEngine> grids = workerGrid;
+        final ThreadLocal<BatchWorker> batches = workerBatch;
+        for (int start = 0; start < popSize; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(popSize, start + chunkSize);
+            if (batchEvaluation) {
+                chunks.add(workerPool.submit(() -> evaluateBatch(batches.get(), from, to)));
+            } else {
+                chunks.add(workerPool.submit(() -> evaluateRange(grids.get(), from, to)));
+            }
+        }
+
+        int gamesPlayed = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                gamesPlayed += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scoring the population", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scoring the population failed", e.getCause());
+        }
+        return gamesPlayed;
+    }
+
+    private int evaluateRange(LifeEngine grid, int from, int to) {
+        FitnessCache cache = fitnessCache;
+        int gamesPlayed = 0;
+        for (int i = from; i < to; i++) {
+            long keyHigh = 0;
+            long keyLow = 0;
+            if (cache != null) {
+                keyHigh = FitnessCache.keyHigh(population[i]);
+                keyLow = FitnessCache.keyLow(population[i]);
+                double score = cache.lookup(keyHigh, keyLow);
+                if (!Double.isNaN(score)) {
+                    population[i].setScore(score);
+                    continue;
+                }
+            }
+            grid.setStartingConfiguration(population[i]);
+            population[i].setScore(grid.runGame(numGameGens, false));
+            gamesPlayed++;
+            if (cache != null) {
+                cache.store(keyHigh, keyLow, population[i].getScore());
+            }
+        }
+        return gamesPlayed;
+    }
+
+    /*
+    Scores a range of the population in bit-sliced batches. With the fitness
+    cache on, only the configurations it misses are packed into the batches,
+    gathered in the worker's scratch arrays. Returns the number of
+    configurations simulated.
+     */
+    private int evaluateBatch(BatchWorker worker, int from, int to) {
+        FitnessCache cache = fitnessCache;
+        if (cache == null) {
+            worker.evaluator.evaluate(population, from, to, numGameGens, batchScores);
+            for (int i = from; i < to; i++) {
+                population[i].setScore(batchScores[i]);
+            }
+            return to - from;
+        }
+
+        worker.ensureCapacity(to - from);
+        Configuration[] uncached = worker.uncached;
+        long[] uncachedHigh = worker.uncachedHigh;
+        long[] uncachedLow = worker.uncachedLow;
+        double[] scores = worker.scores;
+        int numUncached = 0;
+        for (int i = from; i < to; i++) {
+            long keyHigh = FitnessCache.keyHigh(population[i]);
+            long keyLow = FitnessCache.keyLow(population[i]);
+            double score = cache.lookup(keyHigh, keyLow);
+            if (Double.isNaN(score)) {
+                uncachedHigh[numUncached] = keyHigh;
+                uncachedLow[numUncached] = keyLow;
+                uncached[numUncached++] = population[i];
+            } else {
+                population[i].setScore(score);
+            }
+        }
+
+        worker.evaluator.evaluate(uncached, 0, numUncached, numGameGens, scores);
+        for (int i = 0; i < numUncached; i++) {
+            uncached[i].setScore(scores[i]);
+            cache.store(uncachedHigh[i], uncachedLow[i], scores[i]);
+            uncached[i] = null;
+        }
+        return numUncached;
+    }
+
+    /*
+    A bit-sliced evaluator and the scratch arrays evaluateBatch gathers cache
+    misses in. Each thread that scores batches has its own, so once the arrays
+    have grown to the largest chunk, scoring a batch allocates nothing.
+     */
+    private static class BatchWorker {
+        final BitSlicedEvaluator evaluator;
+        Configuration[] uncached = new Configuration[0];
+        long[] uncachedHigh = new long[0];
+        long[] uncachedLow = new long[0];
+        double[] scores = new double[0];
+
+        BatchWorker(int gridHeight, int gridWidth, LifeRule rule) {
+            evaluator = new BitSlicedEvaluator(gridHeight, gridWidth, rule);
+        }
+
+        void ensureCapacity(int size) {
+            if (uncached.length < size) {
+                uncached = new Configuration[size];
+                uncachedHigh = new long[size];
+                uncachedLow = new long[size];
+                scores = new double[size];
+            }
+        }
+    }
+
+    private void cloneElites(Configuration[] newPopulation) {
+        for (int i = 0; i < numElites; i++) {
+            newPopulation[i].deepCopy(population[i]);
+        }
+    }
+
+    /*
+    Fills the new population from startingIndex on with configurations picked
+    by the selection strategy from the scored population.
+     */
+    private void selectRemainingIndividuals(int startingIndex, Configuration[] newPopulation) {
+        selectionStrategy.prepare(population, popSize);
+        for (int i = startingIndex; i < popSize; i++) {
+            newPopulation[i].deepCopy(population[selectionStrategy.select(randGen)]);
+        }
+    }
+
+    /*
+    Moves the k best configurations of the population to its front, best
+    first; the order of the rest is left undefined. The scores are copied
+    into a double[] that is partitioned alongside the population, quickselect
+    style, so ranking the elites costs O(popSize) instead of a full sort.
+     */
+    private void rankBest(int k) {
+        k = Math.min(k, popSize);
+        selectBest(k);
+        // Insertion sort the few best; the scores are already in rankScores.
+        for (int i = 1; i < k; i++) {
+            Configuration config = population[i];
+            double score = rankScores[i];
+            int j = i - 1;
+            while (j >= 0 && rankScores[j] < score) {
+                population[j + 1] = population[j];
+                rankScores[j + 1] = rankScores[j];
+                j--;
+            }
+            population[j + 1] = config;
+            rankScores[j + 1] = score;
+        }
+    }
+
+    /*
+    Partitions the population so that its first k configurations are the k
+    best, in no particular order, and the rest are no better than any of
+    them. Leaves the partitioned scores in rankScores.
+     */
+    private void selectBest(int k) {
+        if (rankScores == null || rankScores.length < popSize) {
+            rankScores = new double[popSize];
+        }
+        for (int i = 0; i < popSize; i++) {
+            rankScores[i] = population[i].getScore();
+        }
+        if (k <= 0 || k >= popSize) {
+            return;
+        }
+
+        int lo = 0;
+        int hi = popSize - 1;
+        while (lo < hi) {
+            double pivot = medianOfThree(rankScores[lo], rankScores[(lo + hi) >>> 1], rankScores[hi]);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (rankScores[i] > pivot) {
+                    i++;
+                }
+                while (rankScores[j] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swapRanked(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // Now [lo, j] >= pivot, (j, i) == pivot and [i, hi] <= pivot.
+            if (k - 1 <= j) {
+                hi = j;
+            } else if (k - 1 >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swapRanked(int i, int j) {
+        Configuration config = population[i];
+        population[i] = population[j];
+        population[j] = config;
+        double score = rankScores[i];
+        rankScores[i] = rankScores[j];
+        rankScores[j] = score;
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /*
+    Sorts the whole population best first. It is a heapsort in place, so
+    sorting allocates nothing. The generational loop only ranks the elites,
+    with rankBest.
+     */
+    public void sortPopulation() {
+        for (int i = popSize / 2 - 1; i >= 0; i--) {
+            siftDown(i, popSize);
+        }
+        // The root of the heap is the worst configuration left; move it behind the rest.
+        for (int end = popSize - 1; end > 0; end--) {
+            Configuration temp = population[0];
+            population[0] = population[end];
+            population[end] = temp;
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int parent, int heapSize) {
+        Configuration config = population[parent];
+        while (2 * parent + 1 < heapSize) {
+            int child = 2 * parent + 1;
+            if (child + 1 < heapSize && population[child + 1].getScore() < population[child].getScore()) {
+                child++;
+            }
+            if (config.getScore() <= population[child].getScore()) {
+                break;
+            }
+            population[parent] = population[child];
+            parent = child;
+        }
+        population[parent] = config;
+    }
+
+    public void printPopScores() {
+        for (int i = 0; i < popSize; i++) {
+            System.out.println(population[i].getScore());
+        }
+    }
+
+    public void printNewPopScores(Configuration[] newPop) {
+        for (int i = 0; i < popSize; i++) {
+            System.out.println(newPop[i].getScore());
+        }
+    }
+
+
+    private Configuration findBestConfiguration() {
+        Configuration bestConfig = population[0];
+        for (Configuration config : population) {
+            if (bestConfig.getScore() < config.getScore()) {
+                bestConfig = config;
+            }
+        }
+        return bestConfig;
+    }
+
+    /*
+    Adds the best configuration to the pattern archive in datafile, under this
+    run's rule and number of game generations, unless the archive already has
+    it in some position, rotation or reflection with at least as good a score.
+     */
+    void saveConfiguration(Configuration bestConfig) {
+        try {
+            PatternArchive archive = new PatternArchive(PatternArchive.DEFAULT_FILE);
+            try {
+                archive.add(bestConfig, bestConfig.getScore(), rule, numGameGens);
+            } finally {
+                archive.close();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // A failed save is reported rather than throwing away the run.
+            System.out.println("Error adding to '" + PatternArchive.DEFAULT_FILE + "': " + e.getMessage());
+        }
+    }
+
+
+    private void applyVariationOperators(int startingInd, int mutationChance, int crossoverChance) {
+        for (int i = startingInd; i < popSize; i++) {
+            population[i].mutation(mutationChance, randGen);
+        }
+        crossover(startingInd, crossoverChance);
+    }
+
+    /*
+    Shuffles the population from startingInd on and, with a crossoverChance
+    percent chance per pair, swaps a random rectangle of cells between the
+    two halves. Package-private so the benchmarks can time it on its own.
+     */
+    void crossover(int startingInd, int crossoverChance) {
+        shufflePopulation(startingInd);
+
+        for (int i = startingInd; i < (popSize - startingInd)/2; i++) {
+            int randChance = randGen.nextInt(100);
+            if (randChance < crossoverChance) {
+                int rowInd1 = randGen.nextInt(gridHeight);
+                int rowInd2 = randGen.nextInt(gridHeight);
+                int colInd1 = randGen.nextInt(gridWidth);
+                int colInd2 = randGen.nextInt(gridWidth);
+
+                int height = Math.max(rowInd1, rowInd2) - Math.min(rowInd1, rowInd2);
+                int width = Math.max(colInd1, colInd2) - Math.min(colInd1, colInd2);
+                rowInd1 = Math.min(rowInd1, rowInd2);
+                colInd1 = Math.min(colInd1, colInd2);
+
+                population[i].swapCellRegion(population[i + (popSize - startingInd)/ 2], rowInd1, colInd1, height, width);
+            }
+        }
+    }
+
+    private void shufflePopulation(int startingInd) {
+        for (int i = startingInd; i < popSize; i++) {
+            int newIndex = randGen.nextInt(popSize-startingInd) + startingInd;
+            Configuration temp = population[newIndex];
+            population[newIndex] = population[i];
+            population[i] = temp;
+        }
+    }
+
+    public static void baseCaseTesting() {
+        int[] saturationLevels = {10, 30, 50, 70, 90};
+        EvolutionaryAgent testAgent;
+
+        for (int i = 0; i < saturationLevels.length; i++) {
+            testAgent = new EvolutionaryAgent(16, 16, 500);
+
+            testAgent.generateStartingPopulation();
+            System.out.println("==========================");
+            System.out.println("Test Saturation Level: " + String.valueOf(saturationLevels[i]));
+            System.out.println("Pop Size: " + String.valueOf(testAgent.popSize));
+            System.out.println("Num Game Gens: " + String.valueOf(testAgent.numGameGens));
+
+            for (Configuration config : testAgent.population) {
+                config.setRandomConfiguration(saturationLevels[i], testAgent.randGen);
+                testAgent.evalGrid.setStartingConfiguration(config);
+                config.setScore(testAgent.evalGrid.runGame(testAgent.numGameGens, false));
+            }
+            double avgFitness = testAgent.calcAvgFitness();
+            double stdDev = testAgent.calculateStandardDev(avgFitness);
+            testAgent.saveTestResults(i + 1, avgFitness, stdDev, saturationLevels[i]);
+            System.out.println("Avg. Fitness of final gen: " + String.valueOf(avgFitness));
+            System.out.println("Std. Dev of final gen: " + String.valueOf(stdDev));
+        }
+    }
+
+    public static void knownPatternTesting() {
+        EvolutionaryAgent resultRecorder = new EvolutionaryAgent(16, 16, 500);
+        cellGrid myGrid = new cellGrid(16, 16);
+        String fileName;
+        double score;
+
+        for (int i = 0; i < 3; i++) {
+            fileName = "FamousPatterns/p" + String.valueOf(i + 1) + ".txt";
+            Configuration startingConfig = myGrid.loadStartingConfig(fileName);
+            myGrid.setStartingConfiguration(startingConfig);
+            score = myGrid.runGame(50, false);
+            resultRecorder.saveTestResults(i + 1, score, 0.0, 0);
+        }
+    }
+
+    private void saveTestResults(int testNum, double avgFitness, double stdDev, int saturationLevel) {
+        try {
+            String testName = "BaseTest" + String.valueOf(testNum);
+            String timeLog = new SimpleDateFormat("yyyyMMdd_HHmmss").format(Calendar.getInstance().getTime());
+            String fileName = testName + timeLog;
+
+            BufferedWriter out = new BufferedWriter(new FileWriter("testresults/" + fileName + ".txt"));
+            out.write("==========================");
+            out.write("Test: " + testName + "\n");
+            out.write("Test Saturation Level: " + saturationLevel + "\n");
+            out.write("Test time: " + timeLog + "\n");
+            out.write("Pop Size: " + String.valueOf(popSize) + "\n");
+            out.write("Num Game Gens: " + String.valueOf(numGameGens) + "\n");
+            out.write("Avg. Fitness of final gen: " + String.valueOf(avgFitness) + "\n");
+            out.write("Std. Dev of final gen: " + String.valueOf(stdDev) + "\n");
+            out.close();
+        } catch (IOException e) {}
+    }
+
+}
\ No newline at end of file
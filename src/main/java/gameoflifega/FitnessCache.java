@@ -0,0 +1,230 @@
+/*
+FitnessCache class remembers the scores of configurations that have already
+been simulated, so elites, the many identical copies tournament selection
+makes, and the final re-evaluation of the population do not run the same game
+again.
+
+Configurations are keyed by a 128-bit hash of their cells (two independent
+64-bit hashes of the packed rows), which makes a false hit practically
+impossible. The cache holds a fixed number of entries in sets of eight. Each
+entry has a referenced bit that is set when it is hit, and a full set evicts
+with the CLOCK algorithm: its hand skips (and clears) referenced entries and
+replaces the first one that was not used since the hand last passed it.
+
+Scores only hold for one rule, grid size and game length, so the cache must be
+cleared whenever one of those changes. All methods may be called from several
+threads at once. The key is hashed from the packed words before any lock is
+taken, and each set is guarded by one of a fixed number of striped locks, so
+fitness workers only wait for each other when they touch sets under the same
+lock. Callers that look a configuration up and then store its score compute
+the key once with keyHigh and keyLow and pass it to both.
+ */
+
+package gameoflifega;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class FitnessCache {
+    private static final int WAYS = 8;
+    private static final int MAX_STRIPES = 256;
+
+    // Instance Variables
+    private int numSets;
+    private long[] keysHigh;
+    private long[] keysLow;
+    private double[] scores;
+    private boolean[] used;
+    private boolean[] referenced;
+    private int[] clockHands;
+    private Object[] locks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /*
+    Returns a FitnessCache object.
+
+    @param capacity    the int number of scores to keep, rounded up to a
+                       power of two and to at least eight.
+    @return the FitnessCache object
+     */
+    public FitnessCache(int capacity) {
+        numSets = 1;
+        while (numSets * WAYS < capacity) {
+            numSets *= 2;
+        }
+        keysHigh = new long[numSets * WAYS];
+        keysLow = new long[numSets * WAYS];
+        scores = new double[numSets * WAYS];
+        used = new boolean[numSets * WAYS];
+        referenced = new boolean[numSets * WAYS];
+        clockHands = new int[numSets];
+        locks = new Object[Math.min(numSets, MAX_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /*
+    Looks up the score of a configuration.
+
+    @param config    the configuration to look up.
+    @return the cached score, or Double.NaN if it is not cached
+     */
+    public double lookup(Configuration config) {
+        return lookup(keyHigh(config), keyLow(config));
+    }
+
+    /*
+    Looks up the score under a key from keyHigh and keyLow.
+
+    @return the cached score, or Double.NaN if it is not cached
+     */
+    public double lookup(long high, long low) {
+        int set = setFor(low);
+        int first = set * WAYS;
+        synchronized (lockFor(set)) {
+            for (int entry = first; entry < first + WAYS; entry++) {
+                if (used[entry] && keysHigh[entry] == high && keysLow[entry] == low) {
+                    referenced[entry] = true;
+                    hits.increment();
+                    return scores[entry];
+                }
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    /*
+    Records the score of a configuration, evicting an entry of its set if the
+    set is full.
+
+    @param config    the configuration that was scored.
+    @param score     its score.
+     */
+    public void store(Configuration config, double score) {
+        store(keyHigh(config), keyLow(config), score);
+    }
+
+    /*
+    Records a score under a key from keyHigh and keyLow.
+     */
+    public void store(long high, long low, double score) {
+        int set = setFor(low);
+        int first = set * WAYS;
+        synchronized (lockFor(set)) {
+            int entry = -1;
+            for (int way = first; way < first + WAYS; way++) {
+                if (!used[way] || (keysHigh[way] == high && keysLow[way] == low)) {
+                    entry = way;
+                    break;
+                }
+            }
+            if (entry < 0) {
+                entry = evict(set);
+            }
+
+            keysHigh[entry] = high;
+            keysLow[entry] = low;
+            scores[entry] = score;
+            used[entry] = true;
+            referenced[entry] = false;
+        }
+    }
+
+    /*
+    Moves the clock hand of a full set to the first entry that has not been
+    referenced since the hand last passed it, and returns that entry. The
+    caller holds the set's lock.
+     */
+    private int evict(int set) {
+        int first = set * WAYS;
+        while (referenced[first + clockHands[set]]) {
+            referenced[first + clockHands[set]] = false;
+            clockHands[set] = (clockHands[set] + 1) % WAYS;
+        }
+        int entry = first + clockHands[set];
+        clockHands[set] = (clockHands[set] + 1) % WAYS;
+        evictions.increment();
+        return entry;
+    }
+
+    /*
+    Forgets every cached score. The counters are kept.
+     */
+    public void clear() {
+        for (int set = 0; set < numSets; set++) {
+            synchronized (lockFor(set)) {
+                for (int entry = set * WAYS; entry < (set + 1) * WAYS; entry++) {
+                    used[entry] = false;
+                    referenced[entry] = false;
+                }
+                clockHands[set] = 0;
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public String toString() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        double hitRate = lookups == 0 ? 0 : 100.0 * hitCount / lookups;
+        return "Fitness cache: " + hitCount + " hits, " + misses.sum() + " misses, " + evictions.sum()
+                + " evictions (" + String.format("%.1f", hitRate) + "% hit rate)";
+    }
+
+    private int setFor(long low) {
+        return (int) (low >>> 32) & (numSets - 1);
+    }
+
+    private Object lockFor(int set) {
+        return locks[set & (locks.length - 1)];
+    }
+
+    /*
+    Returns the high half of a configuration's key. It needs no lock.
+     */
+    public static long keyHigh(Configuration config) {
+        return hashCells(config, 0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L);
+    }
+
+    /*
+    Returns the low half of a configuration's key. It needs no lock.
+     */
+    public static long keyLow(Configuration config) {
+        return hashCells(config, 0xC2B2AE3D27D4EB4FL, 0x94D049BB133111EBL);
+    }
+
+    /*
+    Hashes the packed words of a configuration's cells, and finishes with the
+    dimensions so same-looking grids of different sizes get different keys.
+     */
+    private static long hashCells(Configuration config, long seed, long multiplier) {
+        long hash = seed;
+        int numWords = config.wordCount();
+        for (int i = 0; i < numWords; i++) {
+            hash = mix(hash ^ config.getWord(i), multiplier);
+        }
+        return mix(hash ^ (((long) config.getHeight() << 32) | config.getWidth()), multiplier);
+    }
+
+    private static long mix(long hash, long multiplier) {
+        hash *= multiplier;
+        hash ^= hash >>> 31;
+        hash *= multiplier;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+GenerationEvent class is the JDK Flight Recorder event an EvolutionaryAgent
+commits for every generation while a recording has it enabled, e.g. with
+
+    java -XX:StartFlightRecording=filename=run.jfr -cp target/classes gameoflifega.EvolutionaryAgent
+
+and then `jfr print --events gameoflifega.Generation run.jfr`. The agent
+only creates one when a recording has the event enabled; it is begun as
+scoring starts and committed after variation, so its duration spans the
+whole generation.
+ */
+
+package gameoflifega;
+
+import jdk.jfr.*;
+
+@Name("gameoflifega.Generation")
+@Label("GA Generation")
+@Category("GameOfLifeGA")
+@Description("One generation of the evolutionary algorithm")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(GenerationEvent.class);
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Population Size")
+    int popSize;
+
+    @Label("Evaluation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaluationNanos;
+
+    @Label("Selection Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long selectionNanos;
+
+    @Label("Variation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long variationNanos;
+
+    @Label("Games Played")
+    long gamesPlayed;
+
+    @Label("Nominal Cell Updates")
+    @Description("Games played times generations per game times grid cells")
+    long nominalCellUpdates;
+
+    @Label("Nominal Cell Updates Per Second")
+    double nominalCellUpdatesPerSecond;
+
+    @Label("Min Fitness")
+    double minFitness;
+
+    @Label("Mean Fitness")
+    double meanFitness;
+
+    @Label("Fitness Standard Deviation")
+    double standardDev;
+
+    @Label("10th Percentile Fitness")
+    double p10Fitness;
+
+    @Label("25th Percentile Fitness")
+    double p25Fitness;
+
+    @Label("Median Fitness")
+    double medianFitness;
+
+    @Label("75th Percentile Fitness")
+    double p75Fitness;
+
+    @Label("90th Percentile Fitness")
+    double p90Fitness;
+
+    @Label("Best Fitness")
+    double bestFitness;
+
+    /*
+    Returns whether any running recording has the event enabled. It does
+    not allocate, so the agent can check it every generation.
+     */
+    static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    /*
+    Fills the event in with a finished generation's telemetry and commits
+    it. The event's duration runs from when it was begun.
+     */
+    void record(GenerationStats stats) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        generation = stats.getGeneration();
+        popSize = stats.getPopSize();
+        evaluationNanos = stats.getEvaluationNanos();
+        selectionNanos = stats.getSelectionNanos();
+        variationNanos = stats.getVariationNanos();
+        gamesPlayed = stats.getGamesPlayed();
+        nominalCellUpdates = stats.getNominalCellUpdates();
+        nominalCellUpdatesPerSecond = stats.getNominalCellUpdatesPerSecond();
+        minFitness = stats.getMinFitness();
+        meanFitness = stats.getMeanFitness();
+        standardDev = stats.getStandardDev();
+        p10Fitness = stats.getP10Fitness();
+        p25Fitness = stats.getP25Fitness();
+        medianFitness = stats.getMedianFitness();
+        p75Fitness = stats.getP75Fitness();
+        p90Fitness = stats.getP90Fitness();
+        bestFitness = stats.getBestFitness();
+        commit();
+    }
+}
@@ -0,0 +1,19 @@
+/*
+GenerationListener interface is told about every generation an
+EvolutionaryAgent breeds, with that generation's GenerationStats. It is
+called on the thread running the agent, between breeding one generation and
+scoring the next, so it should be quick.
+ */
+
+package gameoflifega;
+
+public interface GenerationListener {
+
+    /*
+    Called once a generation has been scored, selected from and varied.
+
+    @param stats    the generation's telemetry. The agent reuses it for the
+                    next generation, so copy out whatever is kept.
+     */
+    void generationFinished(GenerationStats stats);
+}
@@ -0,0 +1,167 @@
+/*
+GenerationStats class holds the telemetry of one generation of an
+EvolutionaryAgent: how long scoring, selection and variation took, how much
+work the scoring stood for, and how the population's fitness is spread.
+
+The agent fills in one GenerationStats over and over, so recording never
+allocates; a GenerationListener that keeps the numbers past its call has to
+copy them out.
+ */
+
+package gameoflifega;
+
+public class GenerationStats {
+    // Instance Variables
+    private int generation;
+    private int popSize;
+    private long evaluationNanos;
+    private long selectionNanos;
+    private long variationNanos;
+    private long gamesPlayed;
+    private long nominalCellUpdates;
+    private double minFitness;
+    private double meanFitness;
+    private double standardDev;
+    private double p10Fitness;
+    private double p25Fitness;
+    private double medianFitness;
+    private double p75Fitness;
+    private double p90Fitness;
+    private double bestFitness;
+
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /*
+    Records the scoring of the population.
+
+    @param evaluationNanos    the long time scoring and ranking took.
+    @param gamesPlayed        the long number of games simulated, not counting
+                              the scores the fitness cache had.
+    @param nominalCellUpdates the long number of cell updates those games
+                              would make played in full on the bounded grid.
+     */
+    void setEvaluation(long evaluationNanos, long gamesPlayed, long nominalCellUpdates) {
+        this.evaluationNanos = evaluationNanos;
+        this.gamesPlayed = gamesPlayed;
+        this.nominalCellUpdates = nominalCellUpdates;
+    }
+
+    /*
+    Records the spread of the population's fitness.
+
+    @param sortedScores    the scores, lowest first.
+    @param popSize         the int number of scores.
+    @param mean            the mean score.
+    @param standardDev     the standard deviation of the scores.
+     */
+    void setFitness(double[] sortedScores, int popSize, double mean, double standardDev) {
+        this.popSize = popSize;
+        this.meanFitness = mean;
+        this.standardDev = standardDev;
+        minFitness = sortedScores[0];
+        p10Fitness = percentile(sortedScores, popSize, 10);
+        p25Fitness = percentile(sortedScores, popSize, 25);
+        medianFitness = percentile(sortedScores, popSize, 50);
+        p75Fitness = percentile(sortedScores, popSize, 75);
+        p90Fitness = percentile(sortedScores, popSize, 90);
+        bestFitness = sortedScores[popSize - 1];
+    }
+
+    void setBreeding(long selectionNanos, long variationNanos) {
+        this.selectionNanos = selectionNanos;
+        this.variationNanos = variationNanos;
+    }
+
+    // The nearest-rank percentile: the smallest score at least percent of the scores are at most.
+    private static double percentile(double[] sortedScores, int size, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * size);
+        return sortedScores[Math.max(0, rank - 1)];
+    }
+
+    /*
+    Returns the generation these numbers are for, counting from 0 at the
+    start of each run.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getPopSize() {
+        return popSize;
+    }
+
+    public long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    public long getSelectionNanos() {
+        return selectionNanos;
+    }
+
+    public long getVariationNanos() {
+        return variationNanos;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /*
+    Returns games played times generations per game times grid cells. It is
+    the size of the work, not a count of it: engines skip cycles, settled
+    tiles, empty space or whole generations, so they update fewer cells than
+    this, and it is what makes engines comparable.
+     */
+    public long getNominalCellUpdates() {
+        return nominalCellUpdates;
+    }
+
+    /*
+    Returns the nominal cell updates per second of evaluation time, or 0 if
+    every score came from the fitness cache.
+     */
+    public double getNominalCellUpdatesPerSecond() {
+        if (evaluationNanos <= 0) {
+            return 0;
+        }
+        return nominalCellUpdates * 1e9 / evaluationNanos;
+    }
+
+    public double getMinFitness() {
+        return minFitness;
+    }
+
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    public double getStandardDev() {
+        return standardDev;
+    }
+
+    public double getP10Fitness() {
+        return p10Fitness;
+    }
+
+    public double getP25Fitness() {
+        return p25Fitness;
+    }
+
+    public double getMedianFitness() {
+        return medianFitness;
+    }
+
+    public double getP75Fitness() {
+        return p75Fitness;
+    }
+
+    public double getP90Fitness() {
+        return p90Fitness;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+}
@@ -0,0 +1,716 @@
+/*
+HashLifeEngine class plays Life-like games with Gosper's HashLife algorithm,
+for scoring patterns over thousands of generations.
+
+The plane is a quadtree: a node of level k is a 2^k x 2^k square made of four
+level k-1 quadrants, and level 0 nodes are single cells. Nodes are
+canonical, so two equal squares are always the same node, wherever and
+whenever they appear, and each node remembers where its center ends up after
+2^j generations. A pattern that repeats itself in space or time is therefore
+only ever simulated once, and advancing a pattern by 2^j generations costs
+about as much as the number of distinct squares it passes through.
+
+Unlike the other engines the plane has no edge: patterns are placed with
+their top left corner at the origin and may grow in every direction. Rules
+with B0 would fill the empty plane, so they are not supported.
+
+Scoring a generation needs every cell's neighborhood, which HashLife never
+looks at, so runGame samples the score at checkpoints instead. The score of a
+checkpoint generation is worked out exactly from the live cells and the
+cells around them, however far apart they have drifted, and counts for every
+generation until the next checkpoint. With one checkpoint per generation the scores are exactly
+cellGrid's for patterns that never reach cellGrid's edge. Each checkpoint is
+a Sample of the population and of how many of the generation's neighborhoods
+were novel, first of their kind, or repeats; runGame adds up the samples'
+scores, and hands each sample to a SampleListener if it is given one.
+
+The node table holds at most maxNodes nodes between steps. When it is full,
+every node no longer reachable from the current pattern is dropped, along
+with all remembered results.
+ */
+
+package gameoflifega;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class HashLifeEngine implements LifeEngine {
+    private static final int DEFAULT_MAX_NODES = 1 << 18;
+    private static final int DEFAULT_CHECKPOINTS = 64;
+
+    // Instance Variables
+    private LifeRule rule = LifeRule.CONWAY;
+    private int maxNodes = DEFAULT_MAX_NODES;
+    private int numCheckpoints = DEFAULT_CHECKPOINTS;
+
+    private Node deadCell = new Node(false);
+    private Node liveCell = new Node(true);
+    private Node[] table = new Node[1 << 12];
+    private int numNodes = 0;
+    private int nextId = 2;
+    private Node[] emptyNodes = new Node[64];
+    private int numCollections = 0;
+
+    private Node root;
+    private long generation = 0;
+
+    private LongHashSet liveCells = new LongHashSet();
+    private LongHashSet scoredCells = new LongHashSet();
+    private long[] liveCellKeys = new long[64];
+    private int numLiveCells = 0;
+    private long[] patternsSeen = new long[8];
+    private Sample sample = new Sample();
+
+    /*
+    The statistics of one checkpoint generation of a game. A neighborhood is
+    the 3x3 square around a cell; only cells next to a live cell have a
+    non-empty one, and only those are counted. The generation's score is one
+    point per cell alive in the next generation plus 500 per repeated
+    neighborhood, and it counts for stride generations.
+     */
+    public static final class Sample {
+        private long generation;
+        private long stride;
+        private long population;
+        private long liveNextGen;
+        private long neighborhoods;
+        private long novelNeighborhoods;
+
+        Sample() {
+        }
+
+        // Returns a copy of a sample, which runGame reuses for the next checkpoint.
+        public Sample(Sample other) {
+            generation = other.generation;
+            stride = other.stride;
+            population = other.population;
+            liveNextGen = other.liveNextGen;
+            neighborhoods = other.neighborhoods;
+            novelNeighborhoods = other.novelNeighborhoods;
+        }
+
+        // The generation of the game the sample was taken at, counting from 0.
+        public long getGeneration() {
+            return generation;
+        }
+
+        // The number of generations the sample stands for.
+        public long getStride() {
+            return stride;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        public long getLiveNextGen() {
+            return liveNextGen;
+        }
+
+        // The number of non-empty neighborhoods.
+        public long getNeighborhoods() {
+            return neighborhoods;
+        }
+
+        // The number of kinds of non-empty neighborhood, each counted at its first sighting.
+        public long getNovelNeighborhoods() {
+            return novelNeighborhoods;
+        }
+
+        public long getRepeatedNeighborhoods() {
+            return neighborhoods - novelNeighborhoods;
+        }
+
+        // The score of the sampled generation alone.
+        public double getScore() {
+            return liveNextGen + 500.0 * getRepeatedNeighborhoods();
+        }
+    }
+
+    /*
+    Hears about the checkpoints of a game as runGame samples them. The sample
+    is reused for the next checkpoint, so a listener that keeps it must copy
+    it.
+     */
+    public interface SampleListener {
+        void sampleTaken(Sample sample);
+    }
+
+    /*
+    A canonical square of the plane. Only HashLifeEngine.join creates nodes
+    above level 0, so equal squares are the same object.
+     */
+    private static final class Node {
+        final int level;
+        final int id;
+        final Node nw;
+        final Node ne;
+        final Node sw;
+        final Node se;
+        final long population;
+        Node next;
+        Node[] results;
+
+        Node(boolean alive) {
+            level = 0;
+            id = alive ? 1 : 0;
+            nw = null;
+            ne = null;
+            sw = null;
+            se = null;
+            population = alive ? 1 : 0;
+        }
+
+        Node(int id, Node nw, Node ne, Node sw, Node se) {
+            this.level = nw.level + 1;
+            this.id = id;
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.population = nw.population + ne.population + sw.population + se.population;
+        }
+    }
+
+    /*
+    Returns a HashLifeEngine object for Conway's Game of Life.
+
+    @return the HashLifeEngine object
+     */
+    public HashLifeEngine() {
+        root = emptyNode(3);
+    }
+
+    /*
+    Returns a HashLifeEngine object that plays by a Life-like rule other than
+    Conway's.
+
+    @param rule        the LifeRule to play by; rules with B0 are not supported.
+    @param maxNodes    the int number of nodes the node table may hold
+                       between steps.
+    @return the HashLifeEngine object
+    @throws IllegalArgumentException if the rule has B0
+     */
+    public HashLifeEngine(LifeRule rule, int maxNodes) {
+        if (rule.isBorn(0)) {
+            throw new IllegalArgumentException("HashLife cannot play rules with B0: " + rule);
+        }
+        this.rule = rule;
+        this.maxNodes = maxNodes;
+        root = emptyNode(3);
+    }
+
+    public HashLifeEngine(LifeRule rule) {
+        this(rule, DEFAULT_MAX_NODES);
+    }
+
+    /*
+    Sets how many generations of a game runGame scores exactly. The stride
+    between checkpoints is the largest power of two that still gives at
+    least this many of them; 0 or less scores every generation.
+
+    @param numCheckpoints    the int number of checkpoints per game.
+     */
+    public void setCheckpoints(int numCheckpoints) {
+        this.numCheckpoints = numCheckpoints;
+    }
+
+    public void setStartingConfiguration(Configuration initialConfig) {
+        collectIfFull();
+        int level = 3;
+        while ((1L << (level - 1)) < Math.max(initialConfig.getHeight(), initialConfig.getWidth())) {
+            level++;
+        }
+        long half = 1L << (level - 1);
+        root = build(initialConfig, level, -half, -half);
+        generation = 0;
+    }
+
+    public void clearCellMatrix() {
+        root = emptyNode(3);
+        generation = 0;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getPopulation() {
+        return root.population;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    public int getNumCollections() {
+        return numCollections;
+    }
+
+    /*
+    Plays the game for numGenerations generations and returns its score,
+    sampled at checkpoints as described above.
+     */
+    public double runGame(int numGenerations, boolean printToTerminal) {
+        return runGame(numGenerations, printToTerminal, null);
+    }
+
+    /*
+    Plays the game for numGenerations generations and returns its score, the
+    sum of each checkpoint's score times its stride.
+
+    @param numGenerations     the int number of generations to play.
+    @param printToTerminal    whether to print the pattern at each checkpoint.
+    @param listener           the listener to hand each checkpoint's Sample
+                              to, or null.
+    @return the score
+     */
+    public double runGame(int numGenerations, boolean printToTerminal, SampleListener listener) {
+        int log2Stride = 0;
+        while (numCheckpoints > 0 && (2L << log2Stride) * numCheckpoints <= numGenerations) {
+            log2Stride++;
+        }
+        double totalScore = 0;
+
+        if (printToTerminal) {
+            System.out.println("Welcome to the Game of Life. Here is your starting configuration:");
+            printGrid();
+        }
+
+        long gen = 0;
+        while (gen < numGenerations) {
+            int log2Gens = log2Stride;
+            while ((1L << log2Gens) > numGenerations - gen) {
+                log2Gens--;
+            }
+            sampleGeneration(gen, 1L << log2Gens);
+            totalScore += sample.getScore() * sample.getStride();
+            if (listener != null) {
+                listener.sampleTaken(sample);
+            }
+            step(log2Gens);
+            gen += 1L << log2Gens;
+            if (printToTerminal) {
+                System.out.println("\nGeneration " + String.valueOf(gen) + ":");
+                printGrid();
+            }
+        }
+
+        if (printToTerminal) {
+            System.out.println("Thanks for playing.\n");
+        }
+
+        return totalScore;
+    }
+
+    /*
+    Plays the game like runGame and returns a copy of every checkpoint's
+    Sample, in order.
+     */
+    public List<Sample> sampleGame(int numGenerations) {
+        final List<Sample> samples = new ArrayList<Sample>();
+        runGame(numGenerations, false, new SampleListener() {
+            public void sampleTaken(Sample sample) {
+                samples.add(new Sample(sample));
+            }
+        });
+        return samples;
+    }
+
+    /*
+    Advances the pattern by one generation and returns that generation's
+    score. Every call scores its generation on its own, like a runGame
+    generation.
+     */
+    public double nextGen() {
+        double score = scoreGeneration();
+        step(0);
+        return score;
+    }
+
+    /*
+    Advances the pattern by 2^log2Gens generations in one go.
+
+    @param log2Gens    the int base two logarithm of the number of generations.
+     */
+    public void step(int log2Gens) {
+        collectIfFull();
+
+        // Grow the plane until the pattern sits inside the middle quarter of the root and the
+        // root is big enough to take the step, so nothing can leave the result square.
+        while (root.level < log2Gens + 3 || middlePopulation(root) != root.population) {
+            root = expand(root);
+        }
+        root = successor(root, log2Gens);
+        generation += 1L << log2Gens;
+    }
+
+    /*
+    Returns the score of the current generation, exactly as a runGame
+    generation of the other engines would score it on an unbounded grid: one
+    point for every cell alive in the next generation, plus 500 for every
+    non-empty neighborhood that is not the first of its kind.
+     */
+    public double scoreGeneration() {
+        sampleGeneration(generation, 1);
+        return sample.getScore();
+    }
+
+    /*
+    Fills sample with the statistics of the current generation, which
+    counts for stride generations of the game from gameGeneration on.
+     */
+    private void sampleGeneration(long gameGeneration, long stride) {
+        liveCells.clear();
+        scoredCells.clear();
+        numLiveCells = 0;
+        long half = 1L << (root.level - 1);
+        collectCells(root, -half, -half);
+        for (int i = 0; i < patternsSeen.length; i++) {
+            patternsSeen[i] = 0;
+        }
+
+        // Only cells next to a live cell have a non-empty neighborhood.
+        long liveNextGen = 0;
+        long neighborhoods = 0;
+        long novelNeighborhoods = 0;
+        for (int i = 0; i < numLiveCells; i++) {
+            int liveRow = LongHashSet.keyRow(liveCellKeys[i]);
+            int liveCol = LongHashSet.keyCol(liveCellKeys[i]);
+            for (int row = liveRow - 1; row <= liveRow + 1; row++) {
+                for (int col = liveCol - 1; col <= liveCol + 1; col++) {
+                    if (!scoredCells.add(LongHashSet.cellKey(row, col))) {
+                        continue;
+                    }
+                    int neighborhood = neighborhoodAt(row, col);
+                    if (rule.isAliveNextGen(neighborhood)) {
+                        liveNextGen++;
+                    }
+                    neighborhoods++;
+                    long bit = 1L << neighborhood;
+                    if ((patternsSeen[neighborhood >>> 6] & bit) == 0) {
+                        patternsSeen[neighborhood >>> 6] |= bit;
+                        novelNeighborhoods++;
+                    }
+                }
+            }
+        }
+        sample.generation = gameGeneration;
+        sample.stride = stride;
+        sample.population = numLiveCells;
+        sample.liveNextGen = liveNextGen;
+        sample.neighborhoods = neighborhoods;
+        sample.novelNeighborhoods = novelNeighborhoods;
+    }
+
+    private int neighborhoodAt(int row, int col) {
+        int neighborhood = 0;
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                neighborhood = (neighborhood << 1) | (liveCells.contains(LongHashSet.cellKey(r, c)) ? 1 : 0);
+            }
+        }
+        return neighborhood;
+    }
+
+    /*
+    Adds the live cells of a node whose top left cell is at (top, left) to
+    liveCells and liveCellKeys.
+     */
+    private void collectCells(Node node, long top, long left) {
+        if (node.population == 0) {
+            return;
+        }
+        if (node.level == 0) {
+            long key = LongHashSet.cellKey((int) top, (int) left);
+            liveCells.add(key);
+            if (numLiveCells == liveCellKeys.length) {
+                liveCellKeys = Arrays.copyOf(liveCellKeys, numLiveCells * 2);
+            }
+            liveCellKeys[numLiveCells++] = key;
+            return;
+        }
+        long half = 1L << (node.level - 1);
+        collectCells(node.nw, top, left);
+        collectCells(node.ne, top, left + half);
+        collectCells(node.sw, top + half, left);
+        collectCells(node.se, top + half, left + half);
+    }
+
+    /*
+    Prints the smallest rectangle holding every live cell, in the same style
+    as cellGrid.printGrid.
+     */
+    public void printGrid() {
+        System.out.println();
+        if (root.population == 0) {
+            System.out.println("(empty)");
+            return;
+        }
+        long half = 1L << (root.level - 1);
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        findBounds(root, -half, -half, bounds);
+        for (long row = bounds[0]; row <= bounds[1]; row++) {
+            String curRowString = "";
+            for (long col = bounds[2]; col <= bounds[3]; col++) {
+                if (getCell(root, row + half, col + half)) {
+                    curRowString += "\u25A0 ";
+                } else {
+                    curRowString += "\u25A1 ";
+                }
+            }
+            System.out.println(curRowString);
+        }
+    }
+
+    /*
+    Returns the node for the square of the configuration whose top left cell
+    is at (top, left), with the configuration's own top left at the origin.
+     */
+    private Node build(Configuration config, int level, long top, long left) {
+        long size = 1L << level;
+        if (top >= config.getHeight() || left >= config.getWidth() || top + size <= 0 || left + size <= 0) {
+            return emptyNode(level);
+        }
+        if (level == 0) {
+            return config.getCell((int) top, (int) left) ? liveCell : deadCell;
+        }
+        long half = size / 2;
+        return join(build(config, level - 1, top, left), build(config, level - 1, top, left + half),
+                build(config, level - 1, top + half, left), build(config, level - 1, top + half, left + half));
+    }
+
+    /*
+    Returns the canonical node with the given quadrants, creating it if it is
+    not in the table yet.
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+        int slot = slotFor(nw, ne, sw, se, table.length);
+        for (Node node = table[slot]; node != null; node = node.next) {
+            if (node.nw == nw && node.ne == ne && node.sw == sw && node.se == se) {
+                return node;
+            }
+        }
+
+        Node node = new Node(nextId++, nw, ne, sw, se);
+        node.next = table[slot];
+        table[slot] = node;
+        numNodes++;
+        if (numNodes > table.length) {
+            resizeTable();
+        }
+        return node;
+    }
+
+    private static int slotFor(Node nw, Node ne, Node sw, Node se, int tableLength) {
+        long hash = nw.id;
+        hash = hash * 0x9E3779B97F4A7C15L + ne.id;
+        hash = hash * 0x9E3779B97F4A7C15L + sw.id;
+        hash = hash * 0x9E3779B97F4A7C15L + se.id;
+        hash ^= hash >>> 29;
+        return (int) hash & (tableLength - 1);
+    }
+
+    private void resizeTable() {
+        Node[] oldTable = table;
+        table = new Node[oldTable.length * 2];
+        for (int i = 0; i < oldTable.length; i++) {
+            Node node = oldTable[i];
+            while (node != null) {
+                Node following = node.next;
+                int slot = slotFor(node.nw, node.ne, node.sw, node.se, table.length);
+                node.next = table[slot];
+                table[slot] = node;
+                node = following;
+            }
+        }
+    }
+
+    private Node emptyNode(int level) {
+        if (level == 0) {
+            return deadCell;
+        }
+        if (emptyNodes[level] == null) {
+            Node quadrant = emptyNode(level - 1);
+            emptyNodes[level] = join(quadrant, quadrant, quadrant, quadrant);
+        }
+        return emptyNodes[level];
+    }
+
+    /*
+    Returns the node one level up with the given node in its middle.
+     */
+    private Node expand(Node node) {
+        Node empty = emptyNode(node.level - 1);
+        return join(join(empty, empty, empty, node.nw), join(empty, empty, node.ne, empty),
+                join(empty, node.sw, empty, empty), join(node.se, empty, empty, empty));
+    }
+
+    private static long middlePopulation(Node node) {
+        return node.nw.se.se.population + node.ne.sw.sw.population
+                + node.sw.ne.ne.population + node.se.nw.nw.population;
+    }
+
+    private Node center(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /*
+    Returns the center half of a node of level k after 2^log2Gens generations,
+    for any log2Gens up to k - 2, remembering the answer in the node.
+     */
+    private Node successor(Node node, int log2Gens) {
+        if (node.population == 0) {
+            return emptyNode(node.level - 1);
+        }
+        if (node.results != null && node.results[log2Gens] != null) {
+            return node.results[log2Gens];
+        }
+
+        Node result;
+        if (node.level == 2) {
+            result = stepSmallest(node);
+        } else {
+            // The nine overlapping squares of half the size that tile the node.
+            Node n00 = node.nw;
+            Node n01 = join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw);
+            Node n02 = node.ne;
+            Node n10 = join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne);
+            Node n11 = join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+            Node n12 = join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne);
+            Node n20 = node.sw;
+            Node n21 = join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw);
+            Node n22 = node.se;
+
+            // A full step advances both halves by 2^(k-3) generations; a shorter one only
+            // takes the centers of the nine squares before advancing the second half.
+            boolean fullStep = log2Gens == node.level - 2;
+            int halfStep = fullStep ? log2Gens - 1 : log2Gens;
+            Node r00 = fullStep ? successor(n00, halfStep) : center(n00);
+            Node r01 = fullStep ? successor(n01, halfStep) : center(n01);
+            Node r02 = fullStep ? successor(n02, halfStep) : center(n02);
+            Node r10 = fullStep ? successor(n10, halfStep) : center(n10);
+            Node r11 = fullStep ? successor(n11, halfStep) : center(n11);
+            Node r12 = fullStep ? successor(n12, halfStep) : center(n12);
+            Node r20 = fullStep ? successor(n20, halfStep) : center(n20);
+            Node r21 = fullStep ? successor(n21, halfStep) : center(n21);
+            Node r22 = fullStep ? successor(n22, halfStep) : center(n22);
+
+            result = join(successor(join(r00, r01, r10, r11), halfStep),
+                    successor(join(r01, r02, r11, r12), halfStep),
+                    successor(join(r10, r11, r20, r21), halfStep),
+                    successor(join(r11, r12, r21, r22), halfStep));
+        }
+
+        if (node.results == null) {
+            node.results = new Node[node.level - 1];
+        }
+        node.results[log2Gens] = result;
+        return result;
+    }
+
+    /*
+    Steps the middle 2x2 cells of a 4x4 node by one generation with the rule's
+    lookup table.
+     */
+    private Node stepSmallest(Node node) {
+        int cells = 0;
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                cells = (cells << 1) | (getCell(node, row, col) ? 1 : 0);
+            }
+        }
+        return join(cellAfter(cells, 1, 1), cellAfter(cells, 1, 2),
+                cellAfter(cells, 2, 1), cellAfter(cells, 2, 2));
+    }
+
+    /*
+    Returns the next state of the cell at (row, col) of a 4x4 square whose
+    cells are packed row by row from the top left, which is the high bit.
+     */
+    private Node cellAfter(int cells, int row, int col) {
+        int neighborhood = 0;
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                neighborhood = (neighborhood << 1) | ((cells >>> (15 - (r * 4 + c))) & 1);
+            }
+        }
+        return rule.isAliveNextGen(neighborhood) ? liveCell : deadCell;
+    }
+
+    private static boolean getCell(Node node, long row, long col) {
+        while (node.level > 0) {
+            long half = 1L << (node.level - 1);
+            if (row < half) {
+                node = col < half ? node.nw : node.ne;
+            } else {
+                node = col < half ? node.sw : node.se;
+                row -= half;
+            }
+            if (col >= half) {
+                col -= half;
+            }
+        }
+        return node.population != 0;
+    }
+
+    /*
+    Widens bounds (top, bottom, left, right) to take in every live cell of a
+    node whose top left cell is at (top, left).
+     */
+    private static void findBounds(Node node, long top, long left, long[] bounds) {
+        if (node.population == 0) {
+            return;
+        }
+        if (node.level == 0) {
+            bounds[0] = Math.min(bounds[0], top);
+            bounds[1] = Math.max(bounds[1], top);
+            bounds[2] = Math.min(bounds[2], left);
+            bounds[3] = Math.max(bounds[3], left);
+            return;
+        }
+        long half = 1L << (node.level - 1);
+        findBounds(node.nw, top, left, bounds);
+        findBounds(node.ne, top, left + half, bounds);
+        findBounds(node.sw, top + half, left, bounds);
+        findBounds(node.se, top + half, left + half, bounds);
+    }
+
+    /*
+    Once the table holds more than maxNodes nodes, keeps only the nodes the
+    current pattern is made of and forgets every remembered result.
+     */
+    private void collectIfFull() {
+        if (numNodes <= maxNodes) {
+            return;
+        }
+        table = new Node[table.length];
+        numNodes = 0;
+        for (int level = 0; level < emptyNodes.length; level++) {
+            emptyNodes[level] = null;
+        }
+        keep(root);
+        numCollections++;
+    }
+
+    private void keep(Node node) {
+        if (node.level == 0) {
+            return;
+        }
+        int slot = slotFor(node.nw, node.ne, node.sw, node.se, table.length);
+        for (Node kept = table[slot]; kept != null; kept = kept.next) {
+            if (kept == node) {
+                return;
+            }
+        }
+        keep(node.nw);
+        keep(node.ne);
+        keep(node.sw);
+        keep(node.se);
+        node.results = null;
+        node.next = table[slot];
+        table[slot] = node;
+        numNodes++;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+IslandCoordinator class runs an island model whose islands are evolved by
+IslandWorker processes, in other JVMs or on other hosts, that connect to it
+over TCP. It hands each worker an island, forwards migrants around the ring of
+islands, and keeps the best configuration any island has reported.
+
+For every island the coordinator keeps a snapshot: the last batch of migrants
+the island sent and the generation it had reached. If a worker's connection
+drops before it reports its result, its island goes back in the queue, and
+the next worker to connect picks it up from that generation, seeded with the
+snapshot. Migrants sent to an island while it has no worker are dropped.
+
+The coordinator never writes to a socket while it holds its lock. Each
+connection has an IslandOutbox with a thread of its own, and the coordinator
+only queues messages on it, so a worker that stops reading cannot stall
+migration for the rest of the ring. A worker that falls too far behind, or
+that stays silent, heartbeats included, for longer than the timeout, is
+dropped like one whose connection closed.
+
+Each island is assigned a seed split off the coordinator's master seed, so
+no two islands draw the same random numbers. Migration between processes is
+not in step, so a distributed run is not reproducible the way a seeded
+IslandModel is.
+
+Usage: java -cp target/classes gameoflifega.IslandCoordinator port numIslands [numGens] [migrationInterval]
+ */
+
+package gameoflifega;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+public class IslandCoordinator {
+    // Instance Variables
+    private int port;
+    private int numIslands;
+    private int numGens = 100;
+    private int migrationInterval = 10;
+    private int numMigrants = 5;
+    private int gridHeight = 16;
+    private int gridWidth = 16;
+    private int islandPopSize = 200;
+    private String ruleString = LifeRule.CONWAY.toString();
+    private SplittableRandom masterRandom = new SplittableRandom();
+    private int timeoutMillis = IslandProtocol.TIMEOUT_MILLIS;
+
+    private WorkerConnection[] workers;
+    private Configuration[][] snapshots;
+    private int[] snapshotGens;
+    private long[] islandSeeds;
+    private boolean[] finished;
+    private ArrayDeque<Integer> unassignedIslands = new ArrayDeque<Integer>();
+    private Configuration bestConfig;
+    private int numReassignments = 0;
+
+    /*
+    Returns an IslandCoordinator object.
+
+    @param port          the int TCP port workers connect to.
+    @param numIslands    the int number of islands, one worker each.
+    @return the IslandCoordinator object
+     */
+    public IslandCoordinator(int port, int numIslands) {
+        this.port = port;
+        this.numIslands = numIslands;
+    }
+
+    public static void main(String args[]) throws IOException {
+        IslandCoordinator coordinator = new IslandCoordinator(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        if (args.length > 2) {
+            coordinator.setNumGens(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            coordinator.setMigrationInterval(Integer.parseInt(args[3]));
+        }
+        Configuration bestPattern = coordinator.run();
+        cellGrid grid = new cellGrid(bestPattern.getHeight(), bestPattern.getWidth());
+        grid.setStartingConfiguration(bestPattern);
+        grid.printGrid();
+        System.out.println(bestPattern.getScore());
+        System.out.println("Islands reassigned: " + coordinator.getNumReassignments());
+    }
+
+    public void setNumGens(int numGens) {
+        this.numGens = numGens;
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = Math.max(1, migrationInterval);
+    }
+
+    public void setNumMigrants(int numMigrants) {
+        this.numMigrants = Math.max(1, numMigrants);
+    }
+
+    /*
+    Sets the size of the configurations and of each island's population.
+     */
+    public void setIslandSize(int gridHeight, int gridWidth, int islandPopSize) {
+        this.gridHeight = gridHeight;
+        this.gridWidth = gridWidth;
+        this.islandPopSize = islandPopSize;
+    }
+
+    public void setRule(String ruleString) {
+        this.ruleString = LifeRule.forString(ruleString).toString();
+    }
+
+    /*
+    Sets the master seed the islands' seeds are split off.
+     */
+    public void setSeed(long seed) {
+        masterRandom = new SplittableRandom(seed);
+    }
+
+    /*
+    Sets how long a worker may stay silent before it is dropped. It should
+    be several times IslandProtocol.HEARTBEAT_MILLIS.
+     */
+    public void setTimeout(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public synchronized int getNumReassignments() {
+        return numReassignments;
+    }
+
+    /*
+    Accepts workers until every island has reported its best configuration,
+    and returns the best of those.
+     */
+    public Configuration run() throws IOException {
+        synchronized (this) {
+            workers = new WorkerConnection[numIslands];
+            snapshots = new Configuration[numIslands][];
+            snapshotGens = new int[numIslands];
+            islandSeeds = new long[numIslands];
+            finished = new boolean[numIslands];
+            unassignedIslands.clear();
+            for (int island = 0; island < numIslands; island++) {
+                snapshots[island] = new Configuration[0];
+                islandSeeds[island] = masterRandom.split().nextLong();
+                unassignedIslands.add(island);
+            }
+            bestConfig = null;
+        }
+
+        ServerSocket server = new ServerSocket(port);
+        try {
+            // Time out now and then to notice that the last island has finished.
+            server.setSoTimeout(200);
+            while (!allFinished()) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                assignIsland(socket);
+            }
+        } finally {
+            server.close();
+        }
+
+        synchronized (this) {
+            return bestConfig;
+        }
+    }
+
+    private synchronized boolean allFinished() {
+        for (boolean islandFinished : finished) {
+            if (!islandFinished) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+    Gives a newly connected worker the next island that has no worker, or
+    turns it away if there is none.
+     */
+    private void assignIsland(Socket socket) throws IOException {
+        WorkerConnection worker;
+        synchronized (this) {
+            Integer island = unassignedIslands.poll();
+            if (island == null) {
+                socket.close();
+                return;
+            }
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis);
+            worker = new WorkerConnection(socket, island);
+            workers[island] = worker;
+            worker.send(worker.assignmentFrame(snapshotGens[island], snapshots[island]));
+        }
+        Thread reader = new Thread(worker, "island-coordinator-" + worker.island);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /*
+    Records a batch of migrants as the sending island's snapshot and passes
+    it on to the next island in the ring.
+     */
+    private void migrate(WorkerConnection from, int gen, Configuration[] migrants) {
+        byte[] frame = IslandProtocol.frame(IslandProtocol.MIGRANTS, migrants);
+        synchronized (this) {
+            if (workers[from.island] != from) {
+                return;
+            }
+            snapshots[from.island] = migrants;
+            snapshotGens[from.island] = gen;
+            for (Configuration migrant : migrants) {
+                updateBest(migrant);
+            }
+
+            WorkerConnection to = workers[(from.island + 1) % numIslands];
+            if (to != null && to != from) {
+                to.send(frame);
+            }
+        }
+    }
+
+    private synchronized void finish(WorkerConnection worker, Configuration islandBest) {
+        if (workers[worker.island] != worker) {
+            return;
+        }
+        updateBest(islandBest);
+        finished[worker.island] = true;
+        workers[worker.island] = null;
+    }
+
+    /*
+    Puts the island of a worker whose connection dropped, or that was
+    dropped, back in the queue, to be picked up from its snapshot.
+     */
+    private synchronized void lostWorker(WorkerConnection worker) {
+        worker.close();
+        if (workers[worker.island] != worker || finished[worker.island]) {
+            return;
+        }
+        workers[worker.island] = null;
+        unassignedIslands.add(worker.island);
+        numReassignments++;
+        System.out.println("Lost the worker of island " + worker.island + "; it restarts from generation "
+                + snapshotGens[worker.island] + " when another worker connects.");
+    }
+
+    private void updateBest(Configuration config) {
+        if (bestConfig == null || bestConfig.getScore() < config.getScore()) {
+            bestConfig = config;
+        }
+    }
+
+    /*
+    One connected worker. Its thread reads the worker's messages until it is
+    done or the connection drops or times out; its outbox sends to it.
+     */
+    private class WorkerConnection implements Runnable {
+        private Socket socket;
+        private DataInputStream in;
+        private IslandOutbox outbox;
+        private int island;
+
+        WorkerConnection(Socket socket, int island) throws IOException {
+            this.socket = socket;
+            this.island = island;
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            outbox = new IslandOutbox(socket.getOutputStream(), "island-coordinator-out-" + island, new Runnable() {
+                public void run() {
+                    lostWorker(WorkerConnection.this);
+                }
+            });
+        }
+
+        byte[] assignmentFrame(int startGen, Configuration[] seeds) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeByte(IslandProtocol.ASSIGN);
+                out.writeInt(island);
+                out.writeInt(startGen);
+                out.writeInt(numGens);
+                out.writeInt(migrationInterval);
+                out.writeInt(numMigrants);
+                out.writeInt(gridHeight);
+                out.writeInt(gridWidth);
+                out.writeInt(islandPopSize);
+                out.writeUTF(ruleString);
+                out.writeLong(islandSeeds[island]);
+                IslandProtocol.writeBatch(out, seeds);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not build an assignment", e);
+            }
+            return bytes.toByteArray();
+        }
+
+        /*
+        Queues a message. If the worker has fallen too far behind, its
+        outbox fails and drops it.
+         */
+        void send(byte[] frame) {
+            outbox.send(frame);
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == IslandProtocol.HEARTBEAT) {
+                        continue;
+                    } else if (type == IslandProtocol.MIGRANTS) {
+                        int gen = in.readInt();
+                        migrate(this, gen, IslandProtocol.readBatch(in));
+                    } else if (type == IslandProtocol.DONE) {
+                        Configuration[] islandBest = IslandProtocol.readBatch(in);
+                        if (islandBest.length != 1) {
+                            throw new IOException("Expected one configuration with DONE, got " + islandBest.length);
+                        }
+                        finish(this, islandBest[0]);
+                        close();
+                        return;
+                    } else {
+                        throw new IOException("Unknown message type " + type);
+                    }
+                }
+            } catch (IOException e) {
+                // Closed, corrupt, or silent for longer than the timeout.
+                lostWorker(this);
+            }
+        }
+
+        void close() {
+            outbox.close();
+            try {
+                socket.close();
+            } catch (IOException e) {}
+        }
+    }
+}
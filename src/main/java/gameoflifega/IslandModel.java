@@ -0,0 +1,295 @@
+/*
+IslandModel class evolves patterns on several islands at once: independent
+populations, each an EvolutionaryAgent with its own random numbers and its own
+grid, evolving on a thread of its own. Every few generations each island sends
+copies of its best configurations to another island, which puts them in place
+of its worst ones. The islands explore on their own between migrations, which
+keeps more diversity than one large population, and they only meet through
+the migrants, so throughput grows with the number of cores.
+
+Each island has a mailbox, a ConcurrentLinkedQueue, which is lock-free:
+islands never wait on each other, and an island simply takes whatever migrants
+have arrived by the time it next migrates. Migrants travel with their scores,
+which hold on every island because all islands play the same game.
+
+A seeded model is reproducible instead: every island, and its choice of
+destinations, draws from its own SplitMixRandom split off one master
+stream, and migration happens in step. At each migration generation every
+island posts its migrants, all islands meet at a barrier, each takes the
+migrants addressed to it in island order, and they meet again before going
+on. The same seed then always gives the same result.
+ */
+
+package gameoflifega;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class IslandModel {
+    /*
+    Which island each island sends its migrants to.
+     */
+    public enum Topology {
+        // Island i sends to island i + 1, and the last island to the first.
+        RING,
+        // Each migration goes to another island picked at random.
+        RANDOM
+    }
+
+    // Instance Variables
+    private EvolutionaryAgent[] islands;
+    private List<ConcurrentLinkedQueue<Configuration>> mailboxes;
+    private SplitMixRandom[] destinationRandoms;
+    private CyclicBarrier migrationBarrier;
+    private Configuration[][] postedMigrants;
+    private int[] postedDestinations;
+    private int numGens = 100;
+    private int migrationInterval = 10;
+    private int numMigrants = 5;
+    private Topology topology = Topology.RING;
+
+    /*
+    Returns an IslandModel object.
+
+    @param numIslands       the int number of islands, and of threads.
+    @param gridHeight       the int number of rows in each configuration.
+    @param gridWidth        the int number of columns in each configuration.
+    @param islandPopSize    the int population size of each island.
+    @return the IslandModel object
+     */
+    public IslandModel(int numIslands, int gridHeight, int gridWidth, int islandPopSize) {
+        if (numIslands < 1) {
+            throw new IllegalArgumentException("Need at least one island: " + numIslands);
+        }
+        islands = new EvolutionaryAgent[numIslands];
+        mailboxes = new ArrayList<ConcurrentLinkedQueue<Configuration>>(numIslands);
+        destinationRandoms = new SplitMixRandom[numIslands];
+        postedMigrants = new Configuration[numIslands][];
+        postedDestinations = new int[numIslands];
+        for (int i = 0; i < numIslands; i++) {
+            islands[i] = new EvolutionaryAgent(gridHeight, gridWidth, islandPopSize);
+            mailboxes.add(new ConcurrentLinkedQueue<Configuration>());
+            destinationRandoms[i] = new SplitMixRandom();
+        }
+    }
+
+    public static void main(String args[]) {
+        int numIslands = Runtime.getRuntime().availableProcessors();
+        IslandModel model = new IslandModel(numIslands, 16, 16, 200);
+        Configuration bestPattern = model.evolvePattern(true);
+        model.getIsland(0).displayPattern(bestPattern);
+        System.out.println(bestPattern.getScore());
+    }
+
+    /*
+    Returns one of the islands, e.g. to change its rule or engine. Every
+    island should be set up the same way.
+     */
+    public EvolutionaryAgent getIsland(int island) {
+        return islands[island];
+    }
+
+    public int getNumIslands() {
+        return islands.length;
+    }
+
+    /*
+    Sets the rule every island evolves patterns for, such as "B36/S23".
+     */
+    public void setRule(String ruleString) {
+        for (EvolutionaryAgent island : islands) {
+            island.setRule(ruleString);
+        }
+    }
+
+    public void setNumGens(int numGens) {
+        this.numGens = numGens;
+    }
+
+    /*
+    Sets how often the islands migrate.
+
+    @param migrationInterval    the int number of generations between migrations.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = Math.max(1, migrationInterval);
+    }
+
+    /*
+    Sets how many of its best configurations an island sends each migration.
+     */
+    public void setNumMigrants(int numMigrants) {
+        this.numMigrants = Math.max(0, numMigrants);
+    }
+
+    public void setTopology(Topology topology) {
+        this.topology = topology;
+    }
+
+    /*
+    Seeds every island from one master seed and makes migration happen in
+    step, so that runs with the same seed give the same result.
+
+    @param seed    the long master seed.
+     */
+    public void setSeed(long seed) {
+        SplitMixRandom master = new SplitMixRandom(seed);
+        for (int i = 0; i < islands.length; i++) {
+            islands[i].setRandomStream(master.split());
+            destinationRandoms[i] = master.split();
+        }
+        migrationBarrier = new CyclicBarrier(islands.length);
+    }
+
+    /*
+    Evolves every island for numGens generations, each on its own thread,
+    and returns the best configuration found on any island.
+
+    @param withHyperMutation    whether the islands use triggered hypermutation.
+    @return the best configuration, which is also saved to the datafile folder
+     */
+    public Configuration evolvePattern(final boolean withHyperMutation) {
+        for (ConcurrentLinkedQueue<Configuration> mailbox : mailboxes) {
+            mailbox.clear();
+        }
+        ExecutorService islandThreads = Executors.newFixedThreadPool(islands.length, new ThreadFactory() {
+            public Thread newThread(Runnable task) {
+                Thread islandThread = new Thread(task, "island");
+                islandThread.setDaemon(true);
+                return islandThread;
+            }
+        });
+
+        List<Future<Configuration>> results = new ArrayList<Future<Configuration>>();
+        for (int i = 0; i < islands.length; i++) {
+            final int island = i;
+            results.add(islandThreads.submit(new Callable<Configuration>() {
+                public Configuration call() {
+                    return evolveIsland(island, withHyperMutation);
+                }
+            }));
+        }
+
+        Configuration bestConfig = null;
+        try {
+            for (Future<Configuration> result : results) {
+                Configuration islandBest = result.get();
+                if (bestConfig == null || bestConfig.getScore() < islandBest.getScore()) {
+                    bestConfig = islandBest;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evolving the islands", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An island failed to evolve", e.getCause());
+        } finally {
+            islandThreads.shutdownNow();
+        }
+
+        islands[0].saveConfiguration(bestConfig);
+        return bestConfig;
+    }
+
+    /*
+    Runs one island's evolution. Right after a migration generation is scored
+    and sorted, the island takes in the migrants waiting in its mailbox and
+    sends copies of its own best configurations on.
+     */
+    private Configuration evolveIsland(int island, boolean withHyperMutation) {
+        EvolutionaryAgent agent = islands[island];
+        try {
+            agent.startEvolution();
+            for (int gen = 0; gen < numGens; gen++) {
+                agent.evaluateGeneration(withHyperMutation);
+                if (islands.length > 1 && numMigrants > 0 && (gen + 1) % migrationInterval == 0) {
+                    if (migrationBarrier != null) {
+                        migrateInStep(island);
+                    } else {
+                        receiveMigrants(island);
+                        sendMigrants(island);
+                    }
+                }
+                agent.breedNextGeneration();
+            }
+            return agent.finishEvolution();
+        } catch (RuntimeException e) {
+            // Don't leave the other islands waiting for this one at the barrier.
+            if (migrationBarrier != null) {
+                migrationBarrier.reset();
+            }
+            throw e;
+        }
+    }
+
+    /*
+    Migrates in step with the other islands: post this island's migrants,
+    wait for every island to post, take the migrants addressed to this island
+    in island order, and wait for every island to take theirs.
+     */
+    private void migrateInStep(int island) {
+        postedMigrants[island] = islands[island].copyBestConfigurations(numMigrants);
+        postedDestinations[island] = destinationOf(island);
+        awaitMigration();
+
+        List<Configuration> arrived = new ArrayList<Configuration>();
+        for (int from = 0; from < islands.length; from++) {
+            if (postedDestinations[from] == island) {
+                for (Configuration migrant : postedMigrants[from]) {
+                    arrived.add(migrant);
+                }
+            }
+        }
+        if (!arrived.isEmpty()) {
+            islands[island].replaceWorstConfigurations(arrived.toArray(new Configuration[arrived.size()]), arrived.size());
+        }
+        awaitMigration();
+    }
+
+    private void awaitMigration() {
+        try {
+            migrationBarrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while migrating", e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("Another island failed while migrating", e);
+        }
+    }
+
+    private void sendMigrants(int island) {
+        Configuration[] migrants = islands[island].copyBestConfigurations(numMigrants);
+        ConcurrentLinkedQueue<Configuration> mailbox = mailboxes.get(destinationOf(island));
+        for (Configuration migrant : migrants) {
+            mailbox.offer(migrant);
+        }
+    }
+
+    /*
+    Takes every migrant waiting in an island's mailbox. Any the island has no
+    room for are dropped.
+     */
+    private void receiveMigrants(int island) {
+        List<Configuration> arrived = new ArrayList<Configuration>();
+        Configuration migrant;
+        while ((migrant = mailboxes.get(island).poll()) != null) {
+            arrived.add(migrant);
+        }
+        if (!arrived.isEmpty()) {
+            Configuration[] immigrants = arrived.toArray(new Configuration[arrived.size()]);
+            islands[island].replaceWorstConfigurations(immigrants, immigrants.length);
+        }
+    }
+
+    private int destinationOf(int island) {
+        if (topology == Topology.RING) {
+            return (island + 1) % islands.length;
+        }
+        int destination = destinationRandoms[island].nextInt(islands.length - 1);
+        if (destination >= island) {
+            destination++;
+        }
+        return destination;
+    }
+}
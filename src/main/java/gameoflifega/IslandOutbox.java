@@ -0,0 +1,127 @@
+/*
+IslandOutbox class sends the frames of one island connection from a thread
+of its own, so whoever queues a frame never waits on the network. A
+coordinator holding its lock, or an island between generations, only puts a
+frame in the queue.
+
+While nothing is queued the outbox sends a HEARTBEAT every
+IslandProtocol.HEARTBEAT_MILLIS, so the far end, whose socket times out after
+IslandProtocol.TIMEOUT_MILLIS of silence, can tell a quiet peer from a hung
+one. The queue holds at most MAX_QUEUED_FRAMES frames: a peer that stops
+reading fills its TCP window, then the queue, and then the outbox fails
+rather than buffering without end. When it fails, by a full queue or a write
+error, it calls its failure handler once.
+ */
+
+package gameoflifega;
+
+import java.io.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class IslandOutbox implements Runnable {
+    private static final int MAX_QUEUED_FRAMES = 64;
+    private static final byte[] CLOSE = new byte[0];
+
+    // Instance Variables
+    private final DataOutputStream out;
+    private final LinkedBlockingQueue<byte[]> frames = new LinkedBlockingQueue<byte[]>(MAX_QUEUED_FRAMES);
+    private final Runnable onFailure;
+    private final Thread thread;
+    private volatile boolean failed = false;
+
+    /*
+    Returns an IslandOutbox object, which starts sending at once.
+
+    @param stream       the connection's output stream.
+    @param name         the name of the sending thread.
+    @param onFailure    what to do if the peer cannot be sent to.
+     */
+    IslandOutbox(OutputStream stream, String name, Runnable onFailure) {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+        this.onFailure = onFailure;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /*
+    Queues a frame built by IslandProtocol.
+
+    @return false if the outbox has failed or the peer has fallen
+            MAX_QUEUED_FRAMES behind, in which case it has now failed
+     */
+    boolean send(byte[] frame) {
+        if (failed) {
+            return false;
+        }
+        if (!frames.offer(frame)) {
+            fail();
+            return false;
+        }
+        return true;
+    }
+
+    /*
+    Sends what is queued and then stops. If the queue is full the outbox is
+    failing anyway, and stops when it does.
+     */
+    void close() {
+        frames.offer(CLOSE);
+    }
+
+    /*
+    Waits for a closed outbox to send what was queued.
+
+    @return true if everything was sent
+     */
+    boolean awaitClosed(long timeoutMillis) {
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending the last frames", e);
+        }
+        return !thread.isAlive() && !failed;
+    }
+
+    public void run() {
+        try {
+            while (true) {
+                byte[] frame = frames.poll(IslandProtocol.HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                if (frame == CLOSE) {
+                    out.flush();
+                    return;
+                }
+                if (frame == null) {
+                    out.writeByte(IslandProtocol.HEARTBEAT);
+                } else {
+                    out.write(frame);
+                }
+                // Frames queued together go out together.
+                if (frames.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            fail();
+        } catch (InterruptedException e) {
+            // Nothing interrupts the outbox but the JVM shutting down.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+    The handler runs without the outbox's lock held, as it takes the lock of
+    whoever owns the connection, who may be queueing a frame.
+     */
+    private void fail() {
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+        }
+        onFailure.run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+IslandProtocol class holds the wire format IslandCoordinator and IslandWorker
+talk over a TCP connection, through DataInputStream and DataOutputStream.
+
+Every message starts with a one-byte type:
+
+    ASSIGN      coordinator to worker: the island to evolve and how, the
+                seed of its random numbers, and the configurations to seed
+                it with (none for a fresh island).
+    MIGRANTS    either way: a batch of migrants. From a worker it also
+                carries the generation the island has reached.
+    DONE        worker to coordinator: the island's best configuration.
+    HEARTBEAT   either way, with nothing after it: sent by an IslandOutbox
+                that has had nothing to send for HEARTBEAT_MILLIS.
+
+Configurations always travel in batches: a count, the grid height and width
+the whole batch shares, and then for each configuration its score and its
+cells packed 64 to a long, row by row, as Configuration.packCells packs them.
+A message is built whole into a frame and handed to the connection's
+IslandOutbox, which sends it with one flush, so a migration costs one packet
+or so instead of one per configuration. Both ends time their sockets out
+after TIMEOUT_MILLIS without a message, heartbeats included, and drop the
+peer.
+ */
+
+package gameoflifega;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+public class IslandProtocol {
+    public static final byte ASSIGN = 1;
+    public static final byte MIGRANTS = 2;
+    public static final byte DONE = 3;
+    public static final byte HEARTBEAT = 4;
+
+    public static final int HEARTBEAT_MILLIS = 1000;
+    public static final int TIMEOUT_MILLIS = 15000;
+
+    // A batch bigger than this is taken for a corrupt frame rather than allocated.
+    private static final long MAX_BATCH_BYTES = 1L << 26;
+
+    /*
+    Returns a whole message of the given type: the ints of its header, then
+    a batch of configurations.
+     */
+    public static byte[] frame(byte type, Configuration[] configs, int... header) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(type);
+            for (int value : header) {
+                out.writeInt(value);
+            }
+            writeBatch(out, configs);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not build a message", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /*
+    Writes a batch of configurations, which must all have the same
+    dimensions. It is not flushed.
+     */
+    public static void writeBatch(DataOutputStream out, Configuration[] configs) throws IOException {
+        out.writeInt(configs.length);
+        if (configs.length == 0) {
+            return;
+        }
+        int height = configs[0].getHeight();
+        int width = configs[0].getWidth();
+        if (height > 0xFFFF || width > 0xFFFF) {
+            throw new IllegalArgumentException("Configurations of " + height + "x" + width + " are too large to send");
+        }
+        out.writeShort(height);
+        out.writeShort(width);
+
+        byte[] bytes = new byte[8 * configs[0].packedLength()];
+        LongBuffer words = ByteBuffer.wrap(bytes).asLongBuffer();
+        for (Configuration config : configs) {
+            out.writeDouble(config.getScore());
+            words.clear();
+            config.packCells(words);
+            out.write(bytes);
+        }
+    }
+
+    /*
+    Reads a batch of configurations written by writeBatch. A batch whose
+    count or dimensions are out of range, or that would take more than
+    MAX_BATCH_BYTES, is refused before anything is allocated for it.
+     */
+    public static Configuration[] readBatch(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_BATCH_BYTES / 8) {
+            throw new IOException("Bad batch size: " + count);
+        }
+        if (count == 0) {
+            return new Configuration[0];
+        }
+        int height = in.readUnsignedShort();
+        int width = in.readUnsignedShort();
+        long packedLength = ((long) height * width + 63) / 64;
+        if (height == 0 || width == 0 || count * (8 + 8 * packedLength) > MAX_BATCH_BYTES) {
+            throw new IOException("Bad batch of " + count + " configurations of " + height + "x" + width);
+        }
+
+        Configuration[] configs = new Configuration[count];
+        byte[] bytes = new byte[8 * (int) packedLength];
+        LongBuffer words = ByteBuffer.wrap(bytes).asLongBuffer();
+        for (int i = 0; i < count; i++) {
+            Configuration config = new Configuration(height, width);
+            config.setScore(in.readDouble());
+            in.readFully(bytes);
+            words.clear();
+            config.unpackCells(words);
+            configs[i] = config;
+        }
+        return configs;
+    }
+}
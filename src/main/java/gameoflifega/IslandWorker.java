@@ -0,0 +1,168 @@
+/*
+IslandWorker class evolves one island of an IslandCoordinator's island model.
+It connects to the coordinator, is told which island to evolve and how, and
+then evolves it with an EvolutionaryAgent, trading migrants with the other
+islands through the coordinator. A second thread reads incoming migrants into
+a lock-free queue, and an IslandOutbox sends the island's messages and its
+heartbeats, so the island never waits for the network; it takes in whatever
+has arrived each time it migrates. If the coordinator stays silent for
+IslandProtocol.TIMEOUT_MILLIS the worker drops the connection, and gives up
+the next time it has something to send.
+
+Usage: java -cp target/classes gameoflifega.IslandWorker host port
+ */
+
+package gameoflifega;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class IslandWorker {
+    // Instance Variables
+    private String host;
+    private int port;
+    private ConcurrentLinkedQueue<Configuration> inbox = new ConcurrentLinkedQueue<Configuration>();
+
+    /*
+    Returns an IslandWorker object.
+
+    @param host    the host the coordinator runs on.
+    @param port    the int TCP port the coordinator listens on.
+    @return the IslandWorker object
+     */
+    public IslandWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static void main(String args[]) throws IOException {
+        Configuration islandBest = new IslandWorker(args[0], Integer.parseInt(args[1])).run(true);
+        if (islandBest != null) {
+            System.out.println("Island best: " + islandBest.getScore());
+        }
+    }
+
+    /*
+    Evolves the island the coordinator assigns and reports its best
+    configuration back.
+
+    @param withHyperMutation    whether the island uses triggered hypermutation.
+    @return the island's best configuration, or null if the coordinator had
+            no island left to assign
+     */
+    public Configuration run(boolean withHyperMutation) throws IOException {
+        final Socket socket = new Socket(host, port);
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(IslandProtocol.TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            byte type;
+            try {
+                type = in.readByte();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (type != IslandProtocol.ASSIGN) {
+                throw new IOException("Expected an island assignment, got message type " + type);
+            }
+            int island = in.readInt();
+            int startGen = in.readInt();
+            int numGens = in.readInt();
+            int migrationInterval = in.readInt();
+            int numMigrants = in.readInt();
+            int gridHeight = in.readInt();
+            int gridWidth = in.readInt();
+            int islandPopSize = in.readInt();
+            String ruleString = in.readUTF();
+            long seed = in.readLong();
+            Configuration[] seeds = IslandProtocol.readBatch(in);
+
+            IslandOutbox outbox = new IslandOutbox(socket.getOutputStream(), "island-worker-out-" + island,
+                    new Runnable() {
+                        public void run() {
+                            close(socket);
+                        }
+                    });
+            startReader(socket, in, island);
+
+            EvolutionaryAgent agent = new EvolutionaryAgent(gridHeight, gridWidth, islandPopSize);
+            agent.setRule(ruleString);
+            agent.setSeed(seed);
+            agent.startEvolution();
+            agent.replaceWorstConfigurations(seeds, seeds.length);
+
+            for (int gen = startGen; gen < numGens; gen++) {
+                agent.evaluateGeneration(withHyperMutation);
+                if ((gen + 1) % migrationInterval == 0) {
+                    takeMigrants(agent);
+                    Configuration[] migrants = agent.copyBestConfigurations(numMigrants);
+                    if (!outbox.send(IslandProtocol.frame(IslandProtocol.MIGRANTS, migrants, gen + 1))) {
+                        throw new IOException("Lost the coordinator at generation " + (gen + 1));
+                    }
+                }
+                agent.breedNextGeneration();
+            }
+
+            Configuration islandBest = agent.finishEvolution();
+            outbox.send(IslandProtocol.frame(IslandProtocol.DONE, new Configuration[] {islandBest}));
+            outbox.close();
+            if (!outbox.awaitClosed(IslandProtocol.TIMEOUT_MILLIS)) {
+                throw new IOException("Lost the coordinator before the island's result was sent");
+            }
+            return islandBest;
+        } finally {
+            socket.close();
+        }
+    }
+
+    /*
+    Starts the thread that reads the migrants the coordinator sends into the
+    inbox, until the connection closes. If the coordinator stays silent past
+    the socket's timeout, the thread closes the connection, so the outbox
+    fails too.
+     */
+    private void startReader(final Socket socket, final DataInputStream in, int island) {
+        Thread reader = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    while (true) {
+                        byte type = in.readByte();
+                        if (type == IslandProtocol.MIGRANTS) {
+                            for (Configuration migrant : IslandProtocol.readBatch(in)) {
+                                inbox.offer(migrant);
+                            }
+                        } else if (type != IslandProtocol.HEARTBEAT) {
+                            break;
+                        }
+                    }
+                } catch (IOException e) {
+                    // Closed or timed out; the island carries on until it next sends.
+                }
+                close(socket);
+            }
+        }, "island-worker-" + island);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {}
+    }
+
+    private void takeMigrants(EvolutionaryAgent agent) {
+        List<Configuration> arrived = new ArrayList<Configuration>();
+        Configuration migrant;
+        while ((migrant = inbox.poll()) != null) {
+            arrived.add(migrant);
+        }
+        if (!arrived.isEmpty()) {
+            agent.replaceWorstConfigurations(arrived.toArray(new Configuration[arrived.size()]), arrived.size());
+        }
+    }
+}
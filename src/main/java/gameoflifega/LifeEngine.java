@@ -0,0 +1,44 @@
+/*
+LifeEngine interface describes anything that can simulate Conway's Game of
+Life on a bounded grid and score the run. cellGrid is the reference
+implementation; other engines trade its simplicity for speed, but must
+return exactly the same scores for the same starting configuration.
+ */
+
+package gameoflifega;
+
+public interface LifeEngine {
+
+    /*
+    Sets the initial configuration of living and dead cells. Assumes that the
+    input is of the proper dimensions.
+
+    @param initialConfig    the Configuration to copy onto the grid.
+     */
+    void setStartingConfiguration(Configuration initialConfig);
+
+    /*
+    Kills every cell on the grid.
+     */
+    void clearCellMatrix();
+
+    /*
+    Runs the game for the given number of generations and returns the total
+    score over all of them.
+
+    @param numGenerations   the int number of generations to simulate.
+    @param printToTerminal  whether to print each generation.
+    @return the total score of the run
+     */
+    double runGame(int numGenerations, boolean printToTerminal);
+
+    /*
+    Advances the grid by one generation and returns that generation's score.
+     */
+    double nextGen();
+
+    /*
+    Prints out the current grid of living and dead cells.
+     */
+    void printGrid();
+}
@@ -0,0 +1,178 @@
+/*
+LifeRule class holds a Life-like birth/survival rule, such as "B3/S23" for
+Conway's Game of Life, "B36/S23" for HighLife or "B2/S" for Seeds.
+
+Each rule is compiled once into a 512-entry table indexed by the 9-bit
+neighborhood of a cell, and the compiled rules are shared by every grid.
+Neighborhood bits are read row by row from the top left corner, with the
+top left cell as the highest bit and the center cell as bit 4, which is the
+same order cellGrid has always written its neighborhood strings in.
+ */
+
+package gameoflifega;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LifeRule {
+    private static final ConcurrentHashMap<String, LifeRule> compiledRules =
+            new ConcurrentHashMap<String, LifeRule>();
+
+    public static final LifeRule CONWAY = forString("B3/S23");
+
+    private final String ruleString;
+    private final int birthMask;
+    private final int surviveMask;
+    private final boolean conway;
+    final boolean[] liveDieTable = new boolean[512];
+
+    private LifeRule(String ruleString, int birthMask, int surviveMask) {
+        this.ruleString = ruleString;
+        this.birthMask = birthMask;
+        this.surviveMask = surviveMask;
+        this.conway = birthMask == 1 << 3 && surviveMask == ((1 << 2) | (1 << 3));
+
+        for (int neighborhood = 0; neighborhood < 512; neighborhood++) {
+            int neighborCount = Integer.bitCount(neighborhood & ~0x10);
+            if ((neighborhood & 0x10) != 0) {
+                liveDieTable[neighborhood] = survives(neighborCount);
+            } else {
+                liveDieTable[neighborhood] = isBorn(neighborCount);
+            }
+        }
+    }
+
+    /*
+    Returns the compiled rule for a B/S rule string, compiling it the first
+    time it is asked for. Upper and lower case are both accepted, and the
+    birth and survival halves may come in either order.
+
+    @param ruleString    the rule, e.g. "B3/S23".
+    @return the shared LifeRule object
+    @throws IllegalArgumentException if the string is not a B/S rule
+     */
+    public static LifeRule forString(String ruleString) {
+        String key = ruleString.trim().toUpperCase();
+        LifeRule rule = compiledRules.get(key);
+        if (rule == null) {
+            rule = compile(key);
+            LifeRule existing = compiledRules.putIfAbsent(rule.ruleString, rule);
+            if (existing != null) {
+                rule = existing;
+            }
+            compiledRules.putIfAbsent(key, rule);
+        }
+        return rule;
+    }
+
+    private static LifeRule compile(String key) {
+        String[] halves = key.split("/", -1);
+        if (halves.length != 2) {
+            throw new IllegalArgumentException("Rule must look like B3/S23: " + key);
+        }
+
+        int birthMask = -1;
+        int surviveMask = -1;
+        for (String half : halves) {
+            if (half.startsWith("B") && birthMask < 0) {
+                birthMask = countMask(half, key);
+            } else if (half.startsWith("S") && surviveMask < 0) {
+                surviveMask = countMask(half, key);
+            } else {
+                throw new IllegalArgumentException("Rule must look like B3/S23: " + key);
+            }
+        }
+        return new LifeRule("B" + countDigits(birthMask) + "/S" + countDigits(surviveMask),
+                birthMask, surviveMask);
+    }
+
+    private static int countMask(String half, String key) {
+        int mask = 0;
+        for (int i = 1; i < half.length(); i++) {
+            int count = half.charAt(i) - '0';
+            if (count < 0 || count > 8) {
+                throw new IllegalArgumentException("Neighbor counts must be 0 to 8: " + key);
+            }
+            mask |= 1 << count;
+        }
+        return mask;
+    }
+
+    private static String countDigits(int mask) {
+        String digits = "";
+        for (int count = 0; count <= 8; count++) {
+            if ((mask & (1 << count)) != 0) {
+                digits += String.valueOf(count);
+            }
+        }
+        return digits;
+    }
+
+    /*
+    Returns whether the center cell of a neighborhood is alive in the next
+    generation.
+
+    @param neighborhood    the 9-bit neighborhood index.
+     */
+    public boolean isAliveNextGen(int neighborhood) {
+        return liveDieTable[neighborhood];
+    }
+
+    /*
+    Applies the rule to 64 cells at once. Each bit of the arguments belongs to
+    one cell: whether it is alive now, and its neighbor count split into
+    four bit-planes (ones, twos, fours and eights). Conway's rule has its own
+    short formula; other rules match the count planes against each of the
+    rule's birth and survival counts.
+
+    @return the word of cells that are alive in the next generation
+     */
+    public long nextWord(long alive, long ones, long twos, long fours, long eights) {
+        if (conway) {
+            return twos & ~fours & ~eights & (ones | alive);
+        }
+
+        long next = 0;
+        for (int count = 0; count <= 8; count++) {
+            boolean born = (birthMask & (1 << count)) != 0;
+            boolean survives = (surviveMask & (1 << count)) != 0;
+            if (born || survives) {
+                long hasCount = ((count & 1) != 0 ? ones : ~ones)
+                        & ((count & 2) != 0 ? twos : ~twos)
+                        & ((count & 4) != 0 ? fours : ~fours)
+                        & ((count & 8) != 0 ? eights : ~eights);
+                if (born && survives) {
+                    next |= hasCount;
+                } else if (born) {
+                    next |= hasCount & ~alive;
+                } else {
+                    next |= hasCount & alive;
+                }
+            }
+        }
+        return next;
+    }
+
+    public boolean isBorn(int neighborCount) {
+        return (birthMask & (1 << neighborCount)) != 0;
+    }
+
+    public boolean survives(int neighborCount) {
+        return (surviveMask & (1 << neighborCount)) != 0;
+    }
+
+    public int getBirthMask() {
+        return birthMask;
+    }
+
+    public int getSurviveMask() {
+        return surviveMask;
+    }
+
+    public boolean isConway() {
+        return conway;
+    }
+
+    public String toString() {
+        return ruleString;
+    }
+}
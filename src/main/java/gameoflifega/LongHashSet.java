@@ -0,0 +1,194 @@
+/*
+LongHashSet class is a set of long keys with open addressing and linear
+probing, so adding and looking up cells of a sparse pattern never boxes a key
+or allocates a node. Cells are usually packed into a key with cellKey.
+
+One key value, Long.MIN_VALUE, marks empty slots; it is kept in a field of
+its own instead, so every long can still be stored.
+ */
+
+package gameoflifega;
+
+import java.util.Arrays;
+
+public class LongHashSet {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // Instance Variables
+    private long[] keys;
+    private int size = 0;
+    private boolean containsEmptyKey = false;
+
+    /*
+    Returns an empty LongHashSet object.
+
+    @param expectedSize    the int number of keys it should hold without growing.
+    @return the LongHashSet object
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity *= 2;
+        }
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /*
+    Returns the key of the cell at (row, col).
+     */
+    public static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public static int keyRow(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyCol(long key) {
+        return (int) key;
+    }
+
+    /*
+    Adds a key to the set.
+
+    @return true if the key was not in the set yet
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            boolean added = !containsEmptyKey;
+            containsEmptyKey = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmptyKey;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /*
+    Removes a key from the set. The keys after it in its probe run are shifted
+    back into the gap, so no tombstones are left behind.
+
+    @return true if the key was in the set
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            boolean removed = containsEmptyKey;
+            containsEmptyKey = false;
+            if (removed) {
+                size--;
+            }
+            return removed;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int gap = slot;
+        slot = (slot + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            // A key can fill the gap only if its home slot is not between the gap and it.
+            int home = slotFor(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsEmptyKey = false;
+    }
+
+    /*
+    Copies every key of the set into keysOut, which must have room for
+    size() keys, in no particular order.
+
+    @return the number of keys copied
+     */
+    public int toArray(long[] keysOut) {
+        int count = 0;
+        if (containsEmptyKey) {
+            keysOut[count++] = EMPTY;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                keysOut[count++] = keys[slot];
+            }
+        }
+        return count;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+            }
+        }
+    }
+
+    private static int slotFor(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
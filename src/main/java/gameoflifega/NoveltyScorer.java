@@ -0,0 +1,177 @@
+/*
+NoveltyScorer class keeps track of which neighborhoods have been seen during a
+scoring epoch (normally one generation) and scores each new sighting the way
+cellGrid always has:
+
+      0  the first time a neighborhood is seen in the epoch,
+    500  when it has been seen before, but not at this cell,
+    250  when it has already been seen at this cell.
+
+Neighborhoods seen are kept in a 512-bit set, and (neighborhood, cell) pairs
+are stamped with the epoch they were seen in, so starting a new epoch is O(1)
+and scoring never allocates. Each cell remembers the first neighborhood it was
+scored with in the epoch; only when one cell is scored more than once in the
+same epoch (nextGen called several times without a reset) do the extra pairs
+go into a small open-addressing table. Engines without a fixed cell index,
+such as SparseGrid, score cells by a long key instead, and all of their pairs
+go into that table.
+ */
+
+package gameoflifega;
+
+import java.util.Arrays;
+
+public class NoveltyScorer {
+    private long[] patternsSeen = new long[8];
+    private int[] cellStamp;
+    private short[] cellPattern;
+    private long[] extraKeys = new long[64];
+    private short[] extraPatterns = new short[64];
+    private int[] extraStamps = new int[64];
+    private int extraCount = 0;
+    private int epoch = 1;
+
+    /*
+    Returns a NoveltyScorer object.
+
+    @param numCells    the int number of cells that may be scored, indexed
+                       from 0 to numCells - 1.
+    @return the NoveltyScorer object
+     */
+    public NoveltyScorer(int numCells) {
+        cellStamp = new int[numCells];
+        cellPattern = new short[numCells];
+    }
+
+    /*
+    Returns a NoveltyScorer object for cells that are only known by a long
+    key, through scoreCell.
+     */
+    public NoveltyScorer() {
+        this(0);
+    }
+
+    /*
+    Starts a new scoring epoch, forgetting every neighborhood seen so far.
+     */
+    public void reset() {
+        for (int i = 0; i < patternsSeen.length; i++) {
+            patternsSeen[i] = 0;
+        }
+        extraCount = 0;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(cellStamp, 0);
+            Arrays.fill(extraStamps, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+
+    /*
+    Scores a non-empty neighborhood centered on a cell and records it.
+
+    @param neighborhood    the 9-bit neighborhood index, not 0.
+    @param cellIndex       the index of the center cell.
+    @return 0, 250 or 500
+     */
+    public int score(int neighborhood, int cellIndex) {
+        int word = neighborhood >>> 6;
+        long bit = 1L << neighborhood;
+
+        if ((patternsSeen[word] & bit) == 0) {
+            patternsSeen[word] |= bit;
+            markPair(neighborhood, cellIndex);
+            return 0;
+        }
+        if (markPair(neighborhood, cellIndex)) {
+            return 500;
+        }
+        return 250;
+    }
+
+    /*
+    Scores a non-empty neighborhood centered on a cell known by a long key,
+    such as LongHashSet.cellKey(row, col), and records it. Scores exactly as
+    score does.
+
+    @param neighborhood    the 9-bit neighborhood index, not 0.
+    @param cellKey         the key of the center cell.
+    @return 0, 250 or 500
+     */
+    public int scoreCell(int neighborhood, long cellKey) {
+        int word = neighborhood >>> 6;
+        long bit = 1L << neighborhood;
+
+        if ((patternsSeen[word] & bit) == 0) {
+            patternsSeen[word] |= bit;
+            markExtraPair(neighborhood, cellKey);
+            return 0;
+        }
+        if (markExtraPair(neighborhood, cellKey)) {
+            return 500;
+        }
+        return 250;
+    }
+
+    /*
+    Records that a neighborhood was seen at a cell, returning false if it had
+    already been seen there this epoch.
+     */
+    private boolean markPair(int neighborhood, int cellIndex) {
+        if (cellStamp[cellIndex] != epoch) {
+            cellStamp[cellIndex] = epoch;
+            cellPattern[cellIndex] = (short) neighborhood;
+            return true;
+        }
+        if (cellPattern[cellIndex] == neighborhood) {
+            return false;
+        }
+        return markExtraPair(neighborhood, cellIndex);
+    }
+
+    private boolean markExtraPair(int neighborhood, long cellKey) {
+        int mask = extraKeys.length - 1;
+        int slot = slotFor(cellKey, neighborhood, mask);
+        while (extraStamps[slot] == epoch) {
+            if (extraKeys[slot] == cellKey && extraPatterns[slot] == neighborhood) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        extraKeys[slot] = cellKey;
+        extraPatterns[slot] = (short) neighborhood;
+        extraStamps[slot] = epoch;
+        extraCount++;
+        if (extraCount * 2 > extraKeys.length) {
+            growExtraPairs();
+        }
+        return true;
+    }
+
+    private void growExtraPairs() {
+        long[] oldKeys = extraKeys;
+        short[] oldPatterns = extraPatterns;
+        int[] oldStamps = extraStamps;
+        extraKeys = new long[oldKeys.length * 2];
+        extraPatterns = new short[oldKeys.length * 2];
+        extraStamps = new int[oldKeys.length * 2];
+        int mask = extraKeys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] == epoch) {
+                int slot = slotFor(oldKeys[i], oldPatterns[i], mask);
+                while (extraStamps[slot] == epoch) {
+                    slot = (slot + 1) & mask;
+                }
+                extraKeys[slot] = oldKeys[i];
+                extraPatterns[slot] = oldPatterns[i];
+                extraStamps[slot] = epoch;
+            }
+        }
+    }
+
+    private static int slotFor(long cellKey, int neighborhood, int mask) {
+        long hash = (cellKey ^ ((long) neighborhood << 23)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
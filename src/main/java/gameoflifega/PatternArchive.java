@@ -0,0 +1,718 @@
+/*
+PatternArchive class keeps every evolved pattern worth keeping in one
+append-only file, with its score, the rule and number of game generations it
+was scored under, and when it was found. It replaces a timestamped text file
+per run, which could not be searched and could overwrite each other within
+the same second.
+
+Each pattern is filed under a canonical key: its live cells cut down to their
+bounding box, turned to whichever of the 8 rotations and reflections packs to
+the smallest bits, and combined with the rule and the number of game
+generations, as scores over different game lengths do not compare. A pattern
+found again somewhere else on the grid, or turned or mirrored, is the same
+key, so the archive keeps one pattern per key: the best scoring one. A better scoring
+copy is appended and takes over the key; the old record stays in the file.
+
+Next to the archive is an index, an open addressing hash table from key to
+record and score in a memory-mapped file, so checking for a duplicate reads
+a slot or two and one record rather than the whole archive, and the best
+patterns are a scan of the slots. The archive is the record of truth: the
+index notes how long the archive was when it last wrote to it, and it is
+rebuilt from the archive if that does not match, as after a crash between
+the two writes.
+
+    java -cp target/classes gameoflifega.PatternArchive import datafile [numGameGens]
+    java -cp target/classes gameoflifega.PatternArchive best 10
+    java -cp target/classes gameoflifega.PatternArchive export 1 best.rle
+ */
+
+package gameoflifega;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+
+public class PatternArchive implements Closeable {
+    public static final String DEFAULT_FILE = "datafile/archive.bin";
+
+    private static final int MAGIC = 0x474F4C41;
+    private static final int INDEX_MAGIC = 0x474F4C49;
+    private static final int VERSION = 1;
+    // Version 1 indexes keyed patterns without their number of game generations.
+    private static final int INDEX_VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int INDEX_HEADER_SIZE = 24;
+    private static final int SLOT_SIZE = 24;
+    private static final int MIN_CAPACITY = 1024;
+
+    // A file lock keeps out other processes but not a second opener in this JVM, so each
+    // archive file also has a permit, held from before its file lock until it is closed,
+    // and the thread holding it, which would wait on itself forever if it opened it again.
+    private static final Map<Path, Semaphore> PERMITS = new HashMap<Path, Semaphore>();
+    private static final Map<Path, Thread> HOLDERS = new HashMap<Path, Thread>();
+
+    // Instance Variables
+    private final Path archivePath;
+    private final Path indexPath;
+    private final FileChannel archive;
+    private final Semaphore openPermit;
+    private boolean closed = false;
+    private long archiveLength;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int count;
+
+    /*
+    One pattern in the archive.
+     */
+    public static class Entry {
+        private final Configuration config;
+        private final double score;
+        private final String ruleString;
+        private final int numGameGens;
+        private final long timestamp;
+
+        Entry(Configuration config, double score, String ruleString, int numGameGens, long timestamp) {
+            this.config = config;
+            this.score = score;
+            this.ruleString = ruleString;
+            this.numGameGens = numGameGens;
+            this.timestamp = timestamp;
+        }
+
+        public Configuration getConfiguration() {
+            return config;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getRuleString() {
+            return ruleString;
+        }
+
+        public int getNumGameGens() {
+            return numGameGens;
+        }
+
+        // Milliseconds since the epoch.
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+    /*
+    Opens the archive in fileName, and its index in fileName + ".idx",
+    creating both if need be. The archive is locked until it is closed, so
+    agents in this and other processes wait their turn to save.
+
+    @param fileName    the archive file.
+     */
+    public PatternArchive(String fileName) throws IOException {
+        archivePath = Paths.get(fileName).toAbsolutePath().normalize();
+        indexPath = archivePath.resolveSibling(archivePath.getFileName() + ".idx");
+        openPermit = permitFor(archivePath);
+        try {
+            openPermit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to open " + fileName, e);
+        }
+        setHolder(archivePath, Thread.currentThread());
+        try {
+            archive = FileChannel.open(archivePath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+        try {
+            archive.lock();
+            archiveLength = archive.size();
+            if (archiveLength == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(header, 0);
+                archive.force(false);
+                archiveLength = HEADER_SIZE;
+            } else {
+                ByteBuffer header = readFully(0, HEADER_SIZE);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException(fileName + " is not a version " + VERSION + " pattern archive");
+                }
+            }
+            if (!openIndex()) {
+                rebuildIndex();
+            }
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            release();
+            throw e;
+        }
+    }
+
+    private static synchronized Semaphore permitFor(Path archivePath) {
+        if (HOLDERS.get(archivePath) == Thread.currentThread()) {
+            throw new IllegalStateException(archivePath + " is already open in this thread");
+        }
+        Semaphore permit = PERMITS.get(archivePath);
+        if (permit == null) {
+            permit = new Semaphore(1);
+            PERMITS.put(archivePath, permit);
+        }
+        return permit;
+    }
+
+    private static synchronized void setHolder(Path archivePath, Thread holder) {
+        if (holder == null) {
+            HOLDERS.remove(archivePath);
+        } else {
+            HOLDERS.put(archivePath, holder);
+        }
+    }
+
+    private void release() {
+        setHolder(archivePath, null);
+        openPermit.release();
+    }
+
+    /*
+    Adds a pattern found now, unless the archive already has it, in any
+    position, rotation or reflection, under the same rule and number of game
+    generations with at least as good a score.
+
+    @param config         the pattern.
+    @param score          its score.
+    @param rule           the rule it was scored under.
+    @param numGameGens    the number of game generations it was scored over.
+    @return true if the pattern was added
+     */
+    public boolean add(Configuration config, double score, LifeRule rule, int numGameGens) throws IOException {
+        boolean added = add(config, score, rule.toString(), numGameGens, System.currentTimeMillis());
+        archive.force(false);
+        return added;
+    }
+
+    private boolean add(Configuration config, double score, String ruleString, int numGameGens, long timestamp)
+            throws IOException {
+        long[] form = canonicalForm(config);
+        long key = canonicalKey(form, ruleString, numGameGens);
+        int slot = findSlot(form, key, ruleString, numGameGens);
+        boolean found = slotOffset(slot) != 0;
+        if (found && slotScore(slot) >= score) {
+            return false;
+        }
+        if (!found && 2 * (count + 1) > capacity) {
+            growIndex();
+            slot = findSlot(form, key, ruleString, numGameGens);
+        }
+        long offset = appendRecord(config, score, ruleString, numGameGens, timestamp);
+        setSlot(slot, key, offset, score);
+        if (!found) {
+            count++;
+        }
+        writeIndexHeader();
+        return true;
+    }
+
+    /*
+    Returns whether the archive has the pattern, in any position, rotation or
+    reflection, under the rule and number of game generations.
+     */
+    public boolean contains(Configuration config, LifeRule rule, int numGameGens) throws IOException {
+        long[] form = canonicalForm(config);
+        String ruleString = rule.toString();
+        long key = canonicalKey(form, ruleString, numGameGens);
+        return slotOffset(findSlot(form, key, ruleString, numGameGens)) != 0;
+    }
+
+    /*
+    Returns the number of distinct patterns in the archive.
+     */
+    public int size() {
+        return count;
+    }
+
+    /*
+    Returns the n best scoring patterns, best first. Only the slots are
+    scanned; just the n records returned are read.
+     */
+    public List<Entry> best(int n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of patterns must not be negative: " + n);
+        }
+        // A heap of the n best slots so far, the worst of them on top.
+        PriorityQueue<Integer> bestSlots = new PriorityQueue<Integer>(Math.max(1, n), new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(slotScore(a), slotScore(b));
+            }
+        });
+        for (int slot = 0; slot < capacity && n > 0; slot++) {
+            if (slotOffset(slot) == 0) {
+                continue;
+            }
+            if (bestSlots.size() < n) {
+                bestSlots.add(slot);
+            } else if (slotScore(slot) > slotScore(bestSlots.peek())) {
+                bestSlots.poll();
+                bestSlots.add(slot);
+            }
+        }
+        Entry[] entries = new Entry[bestSlots.size()];
+        for (int i = entries.length - 1; i >= 0; i--) {
+            entries[i] = readRecord(slotOffset(bestSlots.poll()));
+        }
+        return Arrays.asList(entries);
+    }
+
+    /*
+    Adds every pattern file under directory, and the folders in it, that
+    PatternIO reads: .txt, .rle and .cells. Each pattern is scored the way an
+    EvolutionaryAgent scores it and is dated from the timestamp in a
+    bestConfig file name, or else from when the file was last changed. Files
+    that cannot be read are reported and skipped.
+
+    @param directory      the folder to import.
+    @param rule           the rule to score the patterns under.
+    @param numGameGens    the number of game generations to score them over.
+    @return the number of patterns added
+     */
+    public int importPatterns(String directory, LifeRule rule, int numGameGens) throws IOException {
+        final List<Path> files = new ArrayList<Path>();
+        Files.walkFileTree(Paths.get(directory), new SimpleFileVisitor<Path>() {
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString().toLowerCase();
+                if (name.endsWith(".txt") || name.endsWith(".rle") || name.endsWith(".cells")) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+
+        String ruleString = rule.toString();
+        cellGrid grid = null;
+        int gridHeight = 0;
+        int gridWidth = 0;
+        int added = 0;
+        for (Path file : files) {
+            Configuration config;
+            try {
+                config = PatternIO.read(file.toString());
+            } catch (IOException e) {
+                System.out.println("Unable to import '" + file + "': " + e.getMessage());
+                continue;
+            }
+            if (config.getHeight() == 0 || config.getWidth() == 0) {
+                continue;
+            }
+            if (grid == null || gridHeight != config.getHeight() || gridWidth != config.getWidth()) {
+                gridHeight = config.getHeight();
+                gridWidth = config.getWidth();
+                grid = new cellGrid(gridHeight, gridWidth, rule);
+            }
+            grid.setStartingConfiguration(config);
+            double score = grid.runGame(numGameGens, false);
+            if (add(config, score, ruleString, numGameGens, timestampOf(file))) {
+                added++;
+            }
+        }
+        archive.force(false);
+        return added;
+    }
+
+    private static long timestampOf(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.startsWith("bestConfig") && name.length() >= 25) {
+            try {
+                return new SimpleDateFormat("yyyyMMdd_HHmmss").parse(name.substring(10, 25)).getTime();
+            } catch (ParseException e) {
+                // Not a timestamp after all; fall back on the file's.
+            }
+        }
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (index != null) {
+                index.force();
+            }
+            archive.close();
+        } finally {
+            release();
+        }
+    }
+
+    /*
+    Returns the canonical form of a pattern: its height and width and then its
+    cells packed row by row, 64 to a long, once its live cells are cut down to
+    their bounding box and it is turned to whichever of the 8 rotations and
+    reflections is smallest, comparing the height, the width and then the
+    packed words. An empty pattern is {0, 0}.
+     */
+    static long[] canonicalForm(Configuration config) {
+        int top = config.getHeight();
+        int bottom = -1;
+        int left = config.getWidth();
+        int right = -1;
+        for (int row = 0; row < config.getHeight(); row++) {
+            for (int col = 0; col < config.getWidth(); col++) {
+                if (config.getCell(row, col)) {
+                    top = Math.min(top, row);
+                    bottom = row;
+                    left = Math.min(left, col);
+                    right = Math.max(right, col);
+                }
+            }
+        }
+        if (bottom < 0) {
+            return new long[] {0, 0};
+        }
+
+        long[] best = null;
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            long[] form = transform(config, top, left, bottom - top + 1, right - left + 1, symmetry);
+            if (best == null || compareForms(form, best) < 0) {
+                best = form;
+            }
+        }
+        return best;
+    }
+
+    /*
+    Packs the height by width box at top, left, turned by one of the 8
+    symmetries of a square: the identity, the three quarter turns, the two
+    mirror images and the two diagonal reflections.
+     */
+    private static long[] transform(Configuration config, int top, int left, int height, int width, int symmetry) {
+        boolean turned = symmetry == 1 || symmetry == 3 || symmetry == 6 || symmetry == 7;
+        int formHeight = turned ? width : height;
+        int formWidth = turned ? height : width;
+        long[] form = new long[2 + (int) (((long) formHeight * formWidth + 63) / 64)];
+        form[0] = formHeight;
+        form[1] = formWidth;
+        for (int row = 0; row < formHeight; row++) {
+            for (int col = 0; col < formWidth; col++) {
+                int fromRow;
+                int fromCol;
+                switch (symmetry) {
+                    case 0: fromRow = row; fromCol = col; break;
+                    case 1: fromRow = height - 1 - col; fromCol = row; break;
+                    case 2: fromRow = height - 1 - row; fromCol = width - 1 - col; break;
+                    case 3: fromRow = col; fromCol = width - 1 - row; break;
+                    case 4: fromRow = row; fromCol = width - 1 - col; break;
+                    case 5: fromRow = height - 1 - row; fromCol = col; break;
+                    case 6: fromRow = col; fromCol = row; break;
+                    default: fromRow = height - 1 - col; fromCol = width - 1 - row; break;
+                }
+                if (config.getCell(top + fromRow, left + fromCol)) {
+                    long cell = (long) row * formWidth + col;
+                    form[2 + (int) (cell >>> 6)] |= 1L << cell;
+                }
+            }
+        }
+        return form;
+    }
+
+    private static int compareForms(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int order = Long.compareUnsigned(a[i], b[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        // Forms of the same height and width are the same length.
+        return 0;
+    }
+
+    static long canonicalKey(long[] form, String ruleString, int numGameGens) {
+        long key = mix64(ruleString.hashCode() ^ ((long) numGameGens << 32));
+        for (long word : form) {
+            key = mix64(key ^ word) + 0x9e3779b97f4a7c15L;
+        }
+        return mix64(key);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /*
+    Returns the slot holding the key, or the empty slot it would go in. Keys
+    can collide, so a slot only matches if its record has the same canonical
+    form, rule and number of game generations.
+     */
+    private int findSlot(long[] form, long key, String ruleString, int numGameGens) throws IOException {
+        int mask = capacity - 1;
+        int slot = (int) key & mask;
+        while (slotOffset(slot) != 0) {
+            if (slotKey(slot) == key) {
+                Entry entry = readRecord(slotOffset(slot));
+                if (entry.getNumGameGens() == numGameGens && entry.getRuleString().equals(ruleString)
+                        && Arrays.equals(canonicalForm(entry.getConfiguration()), form)) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private long slotKey(int slot) {
+        return index.getLong(INDEX_HEADER_SIZE + slot * SLOT_SIZE);
+    }
+
+    // The record's offset in the archive, or 0 for an empty slot.
+    private long slotOffset(int slot) {
+        return index.getLong(INDEX_HEADER_SIZE + slot * SLOT_SIZE + 8);
+    }
+
+    private double slotScore(int slot) {
+        return index.getDouble(INDEX_HEADER_SIZE + slot * SLOT_SIZE + 16);
+    }
+
+    private void setSlot(int slot, long key, long offset, double score) {
+        int position = INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+        index.putLong(position, key);
+        index.putLong(position + 8, offset);
+        index.putDouble(position + 16, score);
+    }
+
+    private void writeIndexHeader() {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, capacity);
+        index.putInt(12, count);
+        index.putLong(16, archiveLength);
+    }
+
+    /*
+    Maps the index, if there is one and it is up to date with the archive.
+     */
+    private boolean openIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < INDEX_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        int indexCapacity = mapped.getInt(8);
+        if (mapped.getInt(0) != INDEX_MAGIC || mapped.getInt(4) != INDEX_VERSION
+                || indexCapacity < MIN_CAPACITY || Integer.bitCount(indexCapacity) != 1
+                || mapped.capacity() != INDEX_HEADER_SIZE + (long) indexCapacity * SLOT_SIZE
+                || mapped.getLong(16) != archiveLength) {
+            return false;
+        }
+        index = mapped;
+        capacity = indexCapacity;
+        count = mapped.getInt(12);
+        return true;
+    }
+
+    /*
+    Writes an empty index of the given capacity to a temporary file, maps it
+    and renames it over the index.
+     */
+    private MappedByteBuffer createIndex(int newCapacity) throws IOException {
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+        }
+        Files.move(temp, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return mapped;
+    }
+
+    private void growIndex() throws IOException {
+        MappedByteBuffer oldIndex = index;
+        int oldCapacity = capacity;
+        index = createIndex(2 * oldCapacity);
+        capacity = 2 * oldCapacity;
+        int mask = capacity - 1;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int position = INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = oldIndex.getLong(position + 8);
+            if (offset != 0) {
+                long key = oldIndex.getLong(position);
+                int newSlot = (int) key & mask;
+                while (slotOffset(newSlot) != 0) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                setSlot(newSlot, key, offset, oldIndex.getDouble(position + 16));
+            }
+        }
+        writeIndexHeader();
+    }
+
+    /*
+    Builds the index again from the records in the archive. A record cut off
+    by a crash part way through an append is dropped from the archive.
+     */
+    private void rebuildIndex() throws IOException {
+        long length = archiveLength;
+        capacity = MIN_CAPACITY;
+        count = 0;
+        index = createIndex(capacity);
+        archiveLength = HEADER_SIZE;
+        writeIndexHeader();
+
+        long offset = HEADER_SIZE;
+        while (offset + 4 <= length) {
+            int recordLength = readFully(offset, 4).getInt();
+            if (recordLength <= 0 || offset + 4 + recordLength > length) {
+                break;
+            }
+            Entry entry = readRecord(offset);
+            archiveLength = offset + 4 + recordLength;
+            long[] form = canonicalForm(entry.getConfiguration());
+            long key = canonicalKey(form, entry.getRuleString(), entry.getNumGameGens());
+            int slot = findSlot(form, key, entry.getRuleString(), entry.getNumGameGens());
+            boolean found = slotOffset(slot) != 0;
+            if (!found || slotScore(slot) < entry.getScore()) {
+                if (!found && 2 * (count + 1) > capacity) {
+                    growIndex();
+                    slot = findSlot(form, key, entry.getRuleString(), entry.getNumGameGens());
+                }
+                setSlot(slot, key, offset, entry.getScore());
+                if (!found) {
+                    count++;
+                }
+            }
+            offset = archiveLength;
+        }
+        if (archiveLength < length) {
+            System.out.println("Dropping " + (length - archiveLength) + " bytes of a cut off record from " + archivePath);
+            archive.truncate(archiveLength);
+            archive.force(false);
+        }
+        writeIndexHeader();
+    }
+
+    /*
+    A record is its length, then the timestamp, score, height, width, number
+    of game generations, rule and the cells packed as Configuration.packCells
+    packs them.
+     */
+    private long appendRecord(Configuration config, double score, String ruleString, int numGameGens, long timestamp)
+            throws IOException {
+        byte[] rule = ruleString.getBytes(StandardCharsets.UTF_8);
+        int recordLength = 8 + 8 + 4 + 4 + 4 + 2 + rule.length + 8 * config.packedLength();
+        ByteBuffer record = ByteBuffer.allocate(4 + recordLength);
+        record.putInt(recordLength);
+        record.putLong(timestamp);
+        record.putDouble(score);
+        record.putInt(config.getHeight());
+        record.putInt(config.getWidth());
+        record.putInt(numGameGens);
+        record.putShort((short) rule.length);
+        record.put(rule);
+        config.packCells(record.asLongBuffer());
+        record.clear();
+
+        long offset = archiveLength;
+        writeFully(record, offset);
+        archiveLength += record.capacity();
+        return offset;
+    }
+
+    private Entry readRecord(long offset) throws IOException {
+        int recordLength = readFully(offset, 4).getInt();
+        ByteBuffer record = readFully(offset + 4, recordLength);
+        long timestamp = record.getLong();
+        double score = record.getDouble();
+        int height = record.getInt();
+        int width = record.getInt();
+        int numGameGens = record.getInt();
+        byte[] rule = new byte[record.getShort() & 0xFFFF];
+        record.get(rule);
+        Configuration config = new Configuration(height, width);
+        config.unpackCells(record.slice().asLongBuffer());
+        config.setScore(score);
+        return new Entry(config, score, new String(rule, StandardCharsets.UTF_8), numGameGens, timestamp);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (archive.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(archivePath + " ended early");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            archive.write(buffer, position + buffer.position());
+        }
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java -cp target/classes gameoflifega.PatternArchive import <folder> [numGameGens]");
+            System.out.println("       java -cp target/classes gameoflifega.PatternArchive best <n>");
+            System.out.println("       java -cp target/classes gameoflifega.PatternArchive export <rank> <file>");
+            return;
+        }
+        PatternArchive archive = new PatternArchive(DEFAULT_FILE);
+        try {
+            if (args[0].equals("import")) {
+                int numGameGens = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+                int added = archive.importPatterns(args[1], LifeRule.CONWAY, numGameGens);
+                System.out.println("Added " + added + " patterns; the archive holds " + archive.size());
+            } else if (args[0].equals("best")) {
+                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                List<Entry> entries = archive.best(Integer.parseInt(args[1]));
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    System.out.println((i + 1) + "\t" + entry.getScore() + "\t"
+                            + entry.getConfiguration().getHeight() + "x" + entry.getConfiguration().getWidth() + "\t"
+                            + entry.getRuleString() + "\t" + entry.getNumGameGens() + " gens\t"
+                            + dateFormat.format(new Date(entry.getTimestamp())));
+                }
+            } else if (args[0].equals("export") && args.length > 2) {
+                int rank = Integer.parseInt(args[1]);
+                List<Entry> entries = archive.best(rank);
+                if (rank < 1 || entries.size() < rank) {
+                    throw new IllegalArgumentException("The archive has no pattern ranked " + rank);
+                }
+                Entry entry = entries.get(rank - 1);
+                PatternIO.write(entry.getConfiguration(), args[2], formatFor(args[2]),
+                        LifeRule.forString(entry.getRuleString()));
+            } else {
+                throw new IllegalArgumentException("Unknown command: " + String.join(" ", args));
+            }
+        } finally {
+            archive.close();
+        }
+    }
+
+    private static PatternIO.Format formatFor(String fileName) {
+        PatternIO.Format format = PatternIO.Format.forFileName(fileName);
+        return format == null ? PatternIO.Format.ZERO_ONE : format;
+    }
+}
@@ -0,0 +1,470 @@
+/*
+PatternIO class reads and writes patterns in the standard Life formats:
+
+    RLE          run length encoded, as Golly and the LifeWiki use: a header
+                 line "x = width, y = height, rule = B3/S23", then runs of
+                 b (dead) and o (alive) cells, $ at the end of each row and
+                 ! at the end. Lines starting with # are comments.
+    PLAINTEXT    .cells files: one line per row, . for a dead cell and O for
+                 a live one. Lines starting with ! are comments.
+    ZERO_ONE     this project's own text: one line per row, 1 for a live cell
+                 and 0 for a dead one, as in FamousPatterns and datafile.
+
+Files are read and written through a FileChannel a 64 KB buffer at a time and
+parsed byte by byte, so no String is made per line and a multi-megabyte
+pattern never has to fit in memory as text. An RLE header gives the size of
+the pattern up front; plaintext and 0/1 files are scanned once for their size
+and then once more for their cells.
+ */
+
+package gameoflifega;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class PatternIO {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // RLE lines are kept to 70 characters, as the format asks.
+    private static final int RLE_LINE_LENGTH = 70;
+
+    /*
+    The formats a pattern can be read or written in.
+     */
+    public enum Format {
+        RLE,
+        PLAINTEXT,
+        ZERO_ONE;
+
+        /*
+        Returns the format a file name's extension stands for: .rle, .cells,
+        or null for anything else.
+         */
+        public static Format forFileName(String fileName) {
+            String lowerCase = fileName.toLowerCase();
+            if (lowerCase.endsWith(".rle")) {
+                return RLE;
+            }
+            if (lowerCase.endsWith(".cells")) {
+                return PLAINTEXT;
+            }
+            return null;
+        }
+    }
+
+    /*
+    Reads a pattern, in the format its extension names or, for any other
+    extension, the format its first character gives away. The configuration
+    is exactly the size of the pattern.
+
+    @param fileName    the pattern file.
+    @return the pattern
+     */
+    public static Configuration read(String fileName) throws IOException {
+        ByteReader in = new ByteReader(fileName);
+        try {
+            Format format = Format.forFileName(fileName);
+            if (format == null) {
+                format = sniffFormat(in);
+                in.rewind();
+            }
+            if (format == Format.RLE) {
+                return readRle(in, fileName);
+            }
+            return readRows(in, format);
+        } finally {
+            in.close();
+        }
+    }
+
+    /*
+    Writes a pattern in the format its extension names, or as 0/1 text for
+    any other extension. RLE files get a rule = B3/S23 header.
+     */
+    public static void write(Configuration config, String fileName) throws IOException {
+        Format format = Format.forFileName(fileName);
+        write(config, fileName, format == null ? Format.ZERO_ONE : format, LifeRule.CONWAY);
+    }
+
+    /*
+    Writes a pattern, replacing the file if there is one.
+
+    @param config      the pattern.
+    @param fileName    the file to write.
+    @param format      the format to write it in.
+    @param rule        the rule to name in an RLE header; ignored by the
+                       other formats.
+     */
+    public static void write(Configuration config, String fileName, Format format, LifeRule rule) throws IOException {
+        ByteWriter out = new ByteWriter(fileName);
+        try {
+            if (format == Format.RLE) {
+                writeRle(config, out, rule);
+            } else {
+                writeRows(config, out, format);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static Format sniffFormat(ByteReader in) throws IOException {
+        int c = in.next();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            c = in.next();
+        }
+        if (c == '#' || c == 'x') {
+            return Format.RLE;
+        }
+        if (c == '!' || c == '.' || c == 'O' || c == '*') {
+            return Format.PLAINTEXT;
+        }
+        return Format.ZERO_ONE;
+    }
+
+    private static Configuration readRle(ByteReader in, String fileName) throws IOException {
+        // Skip the comment lines; the header is the first line that is not one.
+        int c = in.next();
+        while (c == '#' || c == '\r' || c == '\n') {
+            if (c == '#') {
+                c = in.skipLine();
+            }
+            c = in.next();
+        }
+        StringBuilder header = new StringBuilder();
+        while (c != -1 && c != '\n') {
+            header.append((char) c);
+            c = in.next();
+        }
+
+        int width = -1;
+        int height = -1;
+        for (String field : header.toString().split(",")) {
+            String[] keyValue = field.split("=");
+            if (keyValue.length != 2) {
+                continue;
+            }
+            String key = keyValue[0].trim();
+            try {
+                if (key.equals("x")) {
+                    width = Integer.parseInt(keyValue[1].trim());
+                } else if (key.equals("y")) {
+                    height = Integer.parseInt(keyValue[1].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad RLE header in " + fileName + ": " + header, e);
+            }
+        }
+        if (width < 0 || height < 0) {
+            throw new IOException("No x = and y = in the RLE header of " + fileName + ": " + header);
+        }
+
+        Configuration config = new Configuration(height, width);
+        int row = 0;
+        int col = 0;
+        int count = 0;
+        boolean done = false;
+        while (!done && in.fill()) {
+            byte[] bytes = in.bytes;
+            int end = in.limit;
+            for (int i = in.position; i < end && !done; i++) {
+                c = bytes[i];
+                if (c >= '0' && c <= '9') {
+                    count = count * 10 + c - '0';
+                    continue;
+                }
+                int run = Math.max(1, count);
+                count = 0;
+                if (c == 'b' || c == '.') {
+                    col += run;
+                } else if (c == '$') {
+                    row += run;
+                    col = 0;
+                } else if (c == 'o' || (c >= 'A' && c <= 'X')) {
+                    if (row >= height || col + run > width) {
+                        throw new IOException("Live cells outside the " + width + "x" + height + " pattern in " + fileName);
+                    }
+                    for (int j = 0; j < run; j++) {
+                        config.setCell(row, col + j, true);
+                    }
+                    col += run;
+                } else if (c == '!') {
+                    done = true;
+                } else if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    throw new IOException("Unexpected '" + (char) (c & 0xFF) + "' in the RLE of " + fileName);
+                }
+            }
+            in.position = end;
+        }
+        return config;
+    }
+
+    /*
+    Reads a plaintext or 0/1 pattern: one pass for its size, then a second
+    for its cells.
+     */
+    private static Configuration readRows(ByteReader in, Format format) throws IOException {
+        int height = 0;
+        int width = 0;
+        int lineLength = 0;
+        boolean lineStarted = false;
+        boolean comment = false;
+        boolean plaintext = format == Format.PLAINTEXT;
+        while (in.fill()) {
+            byte[] bytes = in.bytes;
+            int end = in.limit;
+            for (int i = in.position; i < end; i++) {
+                byte c = bytes[i];
+                if (c == '\n') {
+                    if (!comment) {
+                        height++;
+                        width = Math.max(width, lineLength);
+                    }
+                    lineLength = 0;
+                    lineStarted = false;
+                    comment = false;
+                } else if (c != '\r') {
+                    if (!lineStarted && c == '!' && plaintext) {
+                        comment = true;
+                    }
+                    lineStarted = true;
+                    lineLength++;
+                }
+            }
+            in.position = end;
+        }
+        if (lineStarted && !comment) {
+            height++;
+            width = Math.max(width, lineLength);
+        }
+
+        in.rewind();
+        Configuration config = new Configuration(height, width);
+        int row = 0;
+        int col = 0;
+        lineStarted = false;
+        comment = false;
+        while (in.fill()) {
+            byte[] bytes = in.bytes;
+            int end = in.limit;
+            for (int i = in.position; i < end; i++) {
+                byte c = bytes[i];
+                if (c == '\n') {
+                    if (!comment) {
+                        row++;
+                    }
+                    col = 0;
+                    lineStarted = false;
+                    comment = false;
+                } else if (c != '\r') {
+                    if (!lineStarted && c == '!' && plaintext) {
+                        comment = true;
+                    }
+                    lineStarted = true;
+                    if (!comment && (plaintext ? c == 'O' || c == '*' : c == '1')) {
+                        config.setCell(row, col, true);
+                    }
+                    col++;
+                }
+            }
+            in.position = end;
+        }
+        return config;
+    }
+
+    private static void writeRle(Configuration config, ByteWriter out, LifeRule rule) throws IOException {
+        int height = config.getHeight();
+        int width = config.getWidth();
+        out.putAscii("x = ");
+        out.putNumber(width);
+        out.putAscii(", y = ");
+        out.putNumber(height);
+        out.putAscii(", rule = ");
+        out.putAscii(rule.toString());
+        out.put('\n');
+
+        int lineLength = 0;
+        int pendingRows = 0;
+        for (int row = 0; row < height; row++) {
+            int col = 0;
+            while (col < width) {
+                boolean alive = config.getCell(row, col);
+                int run = 1;
+                while (col + run < width && config.getCell(row, col + run) == alive) {
+                    run++;
+                }
+                if (!alive && col + run == width) {
+                    // Dead cells at the end of a row are left to the $.
+                    break;
+                }
+                if (pendingRows > 0) {
+                    lineLength = putRun(out, pendingRows, '$', lineLength);
+                    pendingRows = 0;
+                }
+                lineLength = putRun(out, run, alive ? 'o' : 'b', lineLength);
+                col += run;
+            }
+            pendingRows++;
+        }
+        // Empty rows at the bottom are left to the header's height.
+        if (lineLength + 1 > RLE_LINE_LENGTH) {
+            out.put('\n');
+        }
+        out.put('!');
+        out.put('\n');
+    }
+
+    /*
+    Writes one run, such as 12o, starting a new line first if it would not
+    fit on this one. Returns the length of the line after it.
+     */
+    private static int putRun(ByteWriter out, int run, char tag, int lineLength) throws IOException {
+        int runLength = 1;
+        if (run > 1) {
+            runLength += ByteWriter.digits(run);
+        }
+        if (lineLength + runLength > RLE_LINE_LENGTH) {
+            out.put('\n');
+            lineLength = 0;
+        }
+        if (run > 1) {
+            out.putNumber(run);
+        }
+        out.put(tag);
+        return lineLength + runLength;
+    }
+
+    private static void writeRows(Configuration config, ByteWriter out, Format format) throws IOException {
+        char alive = format == Format.PLAINTEXT ? 'O' : '1';
+        char dead = format == Format.PLAINTEXT ? '.' : '0';
+        for (int row = 0; row < config.getHeight(); row++) {
+            for (int col = 0; col < config.getWidth(); col++) {
+                out.put(config.getCell(row, col) ? alive : dead);
+            }
+            out.put('\n');
+        }
+    }
+
+    /*
+    Reads a file a buffer at a time. The parsers loop over bytes from position
+    to limit themselves, and next serves the odd single byte.
+     */
+    private static final class ByteReader implements Closeable {
+        private final FileChannel channel;
+        final byte[] bytes = new byte[BUFFER_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position;
+        int limit;
+
+        ByteReader(String fileName) throws IOException {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        }
+
+        // Reads the next buffer full once this one is used up; false at the end of the file.
+        boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            position = 0;
+            limit = Math.max(0, read);
+            return read > 0;
+        }
+
+        // Returns the next byte, or -1 at the end of the file.
+        int next() throws IOException {
+            return fill() ? bytes[position++] & 0xFF : -1;
+        }
+
+        // Skips to the end of the line and returns the '\n', or -1 at the end of the file.
+        int skipLine() throws IOException {
+            int c;
+            do {
+                c = next();
+            } while (c != '\n' && c != -1);
+            return c;
+        }
+
+        void rewind() throws IOException {
+            channel.position(0);
+            position = 0;
+            limit = 0;
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /*
+    Writes a file a buffer at a time.
+     */
+    private static final class ByteWriter implements Closeable {
+        private final FileChannel channel;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int position;
+        private final byte[] digitBytes = new byte[10];
+
+        ByteWriter(String fileName) throws IOException {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        void put(char c) throws IOException {
+            if (position == bytes.length) {
+                flush();
+            }
+            bytes[position++] = (byte) c;
+        }
+
+        void putAscii(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                put(text.charAt(i));
+            }
+        }
+
+        // Writes a non-negative number in decimal.
+        void putNumber(int number) throws IOException {
+            int length = 0;
+            do {
+                digitBytes[length++] = (byte) ('0' + number % 10);
+                number /= 10;
+            } while (number > 0);
+            while (length > 0) {
+                put((char) digitBytes[--length]);
+            }
+        }
+
+        static int digits(int number) {
+            int digits = 1;
+            while (number >= 10) {
+                number /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        private void flush() throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, position);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            position = 0;
+        }
+
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
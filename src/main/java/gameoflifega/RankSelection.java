@@ -0,0 +1,77 @@
+/*
+RankSelection class picks configurations by linear ranking: in a population
+of n, the best is n times as likely to be picked as the worst, whatever their
+scores. Unlike roulette selection it keeps the same selection pressure when
+the scores bunch up or one score dwarfs the rest.
+
+Ranking needs the whole population in order, so prepare sorts the indices by
+score, an O(n log n) heapsort over primitive arrays. Picks then go through an
+AliasTable, so each is O(1).
+ */
+
+package gameoflifega;
+
+import java.util.random.RandomGenerator;
+
+public class RankSelection implements SelectionStrategy {
+    // Instance Variables
+    private AliasTable table = new AliasTable();
+    private double[] scores = new double[0];
+    private int[] order = new int[0];
+    private double[] weights = new double[0];
+
+    public void prepare(Configuration[] population, int popSize) {
+        if (scores.length < popSize) {
+            scores = new double[popSize];
+            order = new int[popSize];
+            weights = new double[popSize];
+        }
+        for (int i = 0; i < popSize; i++) {
+            scores[i] = population[i].getScore();
+            order[i] = i;
+        }
+        sortWorstFirst(popSize);
+
+        // order[popSize - 1] is the best, which gets weight popSize.
+        for (int rank = 0; rank < popSize; rank++) {
+            weights[order[rank]] = rank + 1;
+        }
+        table.build(weights, popSize);
+    }
+
+    public int select(RandomGenerator randGen) {
+        return table.sample(randGen);
+    }
+
+    /*
+    Heapsorts the first size entries of order by score, lowest first.
+     */
+    private void sortWorstFirst(int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int temp = order[0];
+            order[0] = order[end];
+            order[end] = temp;
+            siftDown(0, end);
+        }
+    }
+
+    // Keeps the highest score at the root of the heap.
+    private void siftDown(int parent, int heapSize) {
+        int index = order[parent];
+        while (2 * parent + 1 < heapSize) {
+            int child = 2 * parent + 1;
+            if (child + 1 < heapSize && scores[order[child + 1]] > scores[order[child]]) {
+                child++;
+            }
+            if (scores[index] >= scores[order[child]]) {
+                break;
+            }
+            order[parent] = order[child];
+            parent = child;
+        }
+        order[parent] = index;
+    }
+}
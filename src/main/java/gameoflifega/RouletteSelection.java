@@ -0,0 +1,29 @@
+/*
+RouletteSelection class picks configurations with probability proportional
+to their score, through an AliasTable, so each pick is O(1). Negative scores
+count as 0.
+ */
+
+package gameoflifega;
+
+import java.util.random.RandomGenerator;
+
+public class RouletteSelection implements SelectionStrategy {
+    // Instance Variables
+    private AliasTable table = new AliasTable();
+    private double[] weights = new double[0];
+
+    public void prepare(Configuration[] population, int popSize) {
+        if (weights.length < popSize) {
+            weights = new double[popSize];
+        }
+        for (int i = 0; i < popSize; i++) {
+            weights[i] = Math.max(0, population[i].getScore());
+        }
+        table.build(weights, popSize);
+    }
+
+    public int select(RandomGenerator randGen) {
+        return table.sample(randGen);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+SelectionStrategy interface describes how EvolutionaryAgent picks the
+configurations that fill the rest of the next generation after the elites.
+Each pick returns the index of a configuration, so selecting never shuffles
+or copies the population; the agent copies each winner once, into the new
+population.
+
+A strategy keeps state between prepare and select, so every agent needs an
+instance of its own.
+ */
+
+package gameoflifega;
+
+import java.util.random.RandomGenerator;
+
+public interface SelectionStrategy {
+
+    /*
+    Gets ready to select from a scored population. Called once per
+    generation, before any select.
+
+    @param population    the scored population, in no particular order.
+    @param popSize       the int number of configurations in it.
+     */
+    void prepare(Configuration[] population, int popSize);
+
+    /*
+    Picks one configuration.
+
+    @param randGen    the random number generator to pick with.
+    @return the index of the picked configuration in the population
+     */
+    int select(RandomGenerator randGen);
+}
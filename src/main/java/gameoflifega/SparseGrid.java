@@ -0,0 +1,340 @@
+/*
+SparseGrid class simulates a Life-like game by keeping only its live cells,
+so a small pattern in a huge, mostly dead world costs time and memory in
+proportion to the pattern, not the world.
+
+Live cells are kept in a LongHashSet keyed by LongHashSet.cellKey(row, col).
+To step, every live cell ORs its bit into the 9-bit neighborhood of each of
+the nine cells around it, in an open-addressing table of (cell, neighborhood)
+entries. Those are exactly the cells with a non-empty neighborhood, so the
+table holds everything the rule and the scoring need: each entry is looked
+up in the rule's 512-entry table and scored with a NoveltyScorer, just as in
+cellGrid.
+
+A SparseGrid made with dimensions plays on the same bounded grid as cellGrid
+(the user dimensions are increased by two and the edge stays dead) and
+returns exactly cellGrid's scores, so the two can be checked against each
+other. Without dimensions the world is unbounded; cells may then be anywhere
+an int row and column can reach, short of the very ends of the int range.
+ */
+
+package gameoflifega;
+
+import java.util.Arrays;
+
+public class SparseGrid implements LifeEngine {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // Instance Variables
+    private boolean bounded = false;
+    private int gridHeight = 0;
+    private int gridWidth = 0;
+    private LifeRule rule = LifeRule.CONWAY;
+    private boolean[] liveDieTable = rule.liveDieTable;
+    private NoveltyScorer scorer = new NoveltyScorer();
+
+    private LongHashSet liveCells = new LongHashSet();
+    private LongHashSet nextCells = new LongHashSet();
+    private long[] liveCellKeys = new long[64];
+
+    private long[] windowKeys = new long[256];
+    private int[] windowBits = new int[256];
+    private int[] usedSlots = new int[256];
+    private int numUsedSlots = 0;
+
+    /*
+    Returns a SparseGrid object for Conway's Game of Life on an unbounded
+    world.
+
+    @return the SparseGrid object
+     */
+    public SparseGrid() {
+        Arrays.fill(windowKeys, EMPTY);
+    }
+
+    /*
+    Returns a SparseGrid object on an unbounded world that plays by a
+    Life-like rule other than Conway's.
+
+    @param rule    the LifeRule to play by; rules with B0 are not supported.
+    @return the SparseGrid object
+    @throws IllegalArgumentException if the rule has B0
+     */
+    public SparseGrid(LifeRule rule) {
+        this();
+        if (rule.isBorn(0)) {
+            throw new IllegalArgumentException("An unbounded world cannot play rules with B0: " + rule);
+        }
+        this.rule = rule;
+        this.liveDieTable = rule.liveDieTable;
+    }
+
+    /*
+    Returns a SparseGrid object on the same bounded grid as cellGrid. Note
+    that the user dimensions are increased by two, just like cellGrid.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @return the SparseGrid object
+     */
+    public SparseGrid(int gridHeight, int gridWidth) {
+        this();
+        this.bounded = true;
+        this.gridHeight = gridHeight + 2;
+        this.gridWidth = gridWidth + 2;
+    }
+
+    /*
+    Returns a bounded SparseGrid object that plays by a Life-like rule other
+    than Conway's.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by.
+    @return the SparseGrid object
+     */
+    public SparseGrid(int gridHeight, int gridWidth, LifeRule rule) {
+        this(gridHeight, gridWidth);
+        this.rule = rule;
+        this.liveDieTable = rule.liveDieTable;
+    }
+
+    /*
+    Sets the live cells to those of a configuration. Its top left cell goes
+    to row 1, column 1, as in cellGrid.
+     */
+    public void setStartingConfiguration(Configuration initialConfig) {
+        clearCellMatrix();
+        for (int row = 0; row < initialConfig.getHeight(); row++) {
+            for (int col = 0; col < initialConfig.getWidth(); col++) {
+                if (initialConfig.getCell(row, col)) {
+                    setCell(row + 1, col + 1, true);
+                }
+            }
+        }
+    }
+
+    public void clearCellMatrix() {
+        liveCells.clear();
+    }
+
+    /*
+    Brings a single cell to life or kills it. On a bounded grid the edge
+    cells always stay dead.
+     */
+    public void setCell(int row, int col, boolean alive) {
+        if (!isInside(row, col)) {
+            return;
+        }
+        if (alive) {
+            liveCells.add(LongHashSet.cellKey(row, col));
+        } else {
+            liveCells.remove(LongHashSet.cellKey(row, col));
+        }
+    }
+
+    public boolean getCell(int row, int col) {
+        return liveCells.contains(LongHashSet.cellKey(row, col));
+    }
+
+    public int getPopulation() {
+        return liveCells.size();
+    }
+
+    public double runGame(int numGenerations, boolean printToTerminal) {
+        double totalScore = 0;
+
+        if (printToTerminal) {
+            System.out.println("Welcome to the Game of Life. Here is your starting configuration:");
+            printGrid();
+        }
+
+        for (int gen = 0; gen < numGenerations; gen++) {
+            scorer.reset();
+            totalScore += nextGen();
+            if (printToTerminal) {
+                System.out.println("\nGeneration " + String.valueOf(gen + 1) + ":");
+                printGrid();
+            }
+        }
+
+        if (printToTerminal) {
+            System.out.println("Thanks for playing.\n");
+        }
+
+        return totalScore;
+    }
+
+    /*
+    Updates which cells are alive and which cells are dead in the next
+    generation, touching only the live cells and the cells around them.
+    Returns the score for the generation, exactly as cellGrid.nextGen does.
+     */
+    public double nextGen() {
+        int numLive = liveCells.size();
+        if (liveCellKeys.length < numLive) {
+            liveCellKeys = new long[numLive * 2];
+        }
+        liveCells.toArray(liveCellKeys);
+        clearWindows(numLive * 9);
+
+        // A live cell is the bottom right bit of the neighborhood of the cell up and to
+        // its left, and so on, up to the top left bit of the cell down and to its right.
+        for (int i = 0; i < numLive; i++) {
+            int liveRow = LongHashSet.keyRow(liveCellKeys[i]);
+            int liveCol = LongHashSet.keyCol(liveCellKeys[i]);
+            int bit = 1;
+            for (int row = liveRow - 1; row <= liveRow + 1; row++) {
+                for (int col = liveCol - 1; col <= liveCol + 1; col++) {
+                    if (isInside(row, col)) {
+                        addToWindow(LongHashSet.cellKey(row, col), bit);
+                    }
+                    bit <<= 1;
+                }
+            }
+        }
+
+        double score = 0;
+        nextCells.clear();
+        for (int i = 0; i < numUsedSlots; i++) {
+            int slot = usedSlots[i];
+            int neighborhood = windowBits[slot];
+            if (liveDieTable[neighborhood]) {
+                nextCells.add(windowKeys[slot]);
+                score += 1;
+            }
+            score += scorer.scoreCell(neighborhood, windowKeys[slot]);
+        }
+        if (bounded && liveDieTable[0]) {
+            score += bornFromNothing();
+        }
+
+        LongHashSet temp = liveCells;
+        liveCells = nextCells;
+        nextCells = temp;
+        return score;
+    }
+
+    /*
+    With a B0 rule every cell of a bounded grid with an empty neighborhood is
+    born too. Returns how many were.
+     */
+    private int bornFromNothing() {
+        int born = 0;
+        for (int row = 1; row < gridHeight - 1; row++) {
+            for (int col = 1; col < gridWidth - 1; col++) {
+                long key = LongHashSet.cellKey(row, col);
+                if (!windowContains(key)) {
+                    nextCells.add(key);
+                    born++;
+                }
+            }
+        }
+        return born;
+    }
+
+    // Only cells inside the edge of a bounded grid are stepped and scored, as in cellGrid.
+    private boolean isInside(int row, int col) {
+        return !bounded || (row >= 1 && row < gridHeight - 1 && col >= 1 && col < gridWidth - 1);
+    }
+
+    /*
+    Empties the window table, making sure it has room for numEntries
+    entries at half load.
+     */
+    private void clearWindows(int numEntries) {
+        for (int i = 0; i < numUsedSlots; i++) {
+            windowKeys[usedSlots[i]] = EMPTY;
+        }
+        numUsedSlots = 0;
+
+        if (windowKeys.length < numEntries * 2) {
+            int capacity = windowKeys.length;
+            while (capacity < numEntries * 2) {
+                capacity *= 2;
+            }
+            windowKeys = new long[capacity];
+            Arrays.fill(windowKeys, EMPTY);
+            windowBits = new int[capacity];
+        }
+        if (usedSlots.length < numEntries) {
+            usedSlots = new int[numEntries];
+        }
+    }
+
+    private void addToWindow(long key, int bit) {
+        int mask = windowKeys.length - 1;
+        int slot = slotFor(key, mask);
+        while (windowKeys[slot] != EMPTY) {
+            if (windowKeys[slot] == key) {
+                windowBits[slot] |= bit;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        windowKeys[slot] = key;
+        windowBits[slot] = bit;
+        usedSlots[numUsedSlots++] = slot;
+    }
+
+    private boolean windowContains(long key) {
+        int mask = windowKeys.length - 1;
+        int slot = slotFor(key, mask);
+        while (windowKeys[slot] != EMPTY) {
+            if (windowKeys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static int slotFor(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /*
+    Prints the grid in the same format as cellGrid.printGrid. An unbounded
+    world prints the smallest rectangle holding every live cell.
+     */
+    public void printGrid() {
+        System.out.println();
+        int top = 0;
+        int bottom = gridHeight - 1;
+        int left = 0;
+        int right = gridWidth - 1;
+        if (!bounded) {
+            if (liveCells.size() == 0) {
+                System.out.println("(empty)");
+                return;
+            }
+            long[] keys = new long[liveCells.size()];
+            int numKeys = liveCells.toArray(keys);
+            top = Integer.MAX_VALUE;
+            bottom = Integer.MIN_VALUE;
+            left = Integer.MAX_VALUE;
+            right = Integer.MIN_VALUE;
+            for (int i = 0; i < numKeys; i++) {
+                top = Math.min(top, LongHashSet.keyRow(keys[i]) - 1);
+                bottom = Math.max(bottom, LongHashSet.keyRow(keys[i]) + 1);
+                left = Math.min(left, LongHashSet.keyCol(keys[i]) - 1);
+                right = Math.max(right, LongHashSet.keyCol(keys[i]) + 1);
+            }
+        }
+
+        System.out.println(new String(new char[right - left + 1]).replace("\0", "\u25AB "));
+        for (int row = top + 1; row < bottom; row++) {
+            String curRowString = "\u25AB ";
+            for (int col = left + 1; col < right; col++) {
+                if (getCell(row, col)) {
+                    curRowString += "\u25A0 ";
+                } else {
+                    curRowString += "\u25A1 ";
+                }
+            }
+            System.out.println(curRowString + "\u25AB");
+        }
+        System.out.println(new String(new char[right - left + 1]).replace("\0", "\u25AB "));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+SplitMixRandom class is the SplitMix64 generator behind SplittableRandom,
+written out so that its state can be saved and restored. SplittableRandom
+keeps its two longs of state to itself, so a checkpointed run could not go
+on with the same random numbers.
+
+It draws exactly the numbers a SplittableRandom with the same seed draws, and
+split gives the same streams, so seeded runs come out as they always have.
+Every other method, such as nextInt(bound) and nextDouble, is the
+RandomGenerator default built on nextInt and nextLong, as it is for
+SplittableRandom.
+ */
+
+package gameoflifega;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class SplitMixRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // Instance Variables
+    private long seed;
+    private final long gamma;
+
+    /*
+    Returns a SplitMixRandom object seeded like new SplittableRandom(seed).
+
+    @param seed    the long seed.
+    @return the SplitMixRandom object
+     */
+    public SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /*
+    Returns a SplitMixRandom object with a seed of its own, drawn from a
+    SplittableRandom, as an unseeded agent starts with.
+     */
+    public SplitMixRandom() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /*
+    Returns a SplitMixRandom object in a saved state.
+
+    @param seed     the long seed, as getSeed returned it.
+    @param gamma    the odd long step, as getGamma returned it.
+     */
+    SplitMixRandom(long seed, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("The gamma must be odd: " + gamma);
+        }
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    long getGamma() {
+        return gamma;
+    }
+
+    /*
+    Returns a new generator whose stream is independent of this one's, and
+    the same one SplittableRandom.split would give.
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    // An odd gamma with enough bit transitions to give a good stream.
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+TelemetryFileSink class is a GenerationListener that writes every
+interval-th generation's telemetry to a file, one line per generation, as
+CSV with a header line or as JSON lines. Each line is flushed as it is
+written, so the file can be followed while a long run goes on.
+
+A sink writes for one agent; give every island of an IslandModel its own.
+ */
+
+package gameoflifega;
+
+import java.io.*;
+
+public class TelemetryFileSink implements GenerationListener, Closeable {
+    /*
+    The format the lines are written in.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    private static final String[] FIELDS = {
+        "generation", "popSize", "evaluationNanos", "selectionNanos", "variationNanos",
+        "gamesPlayed", "nominalCellUpdates", "nominalCellUpdatesPerSecond", "minFitness", "meanFitness",
+        "standardDev", "p10Fitness", "p25Fitness", "medianFitness", "p75Fitness",
+        "p90Fitness", "bestFitness"
+    };
+
+    // Instance Variables
+    private String fileName;
+    private BufferedWriter out;
+    private Format format;
+    private int interval;
+    private StringBuilder line = new StringBuilder();
+
+    /*
+    Returns a TelemetryFileSink object, which creates or overwrites the file.
+
+    @param fileName    the name of the file to write to.
+    @param format      CSV or JSON_LINES.
+    @param interval    the int number of generations between lines; 1 writes
+                       every generation.
+    @return the TelemetryFileSink object
+     */
+    public TelemetryFileSink(String fileName, Format format, int interval) throws IOException {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The interval must be at least one generation: " + interval);
+        }
+        this.fileName = fileName;
+        this.format = format;
+        this.interval = interval;
+        out = new BufferedWriter(new FileWriter(fileName));
+        if (format == Format.CSV) {
+            out.write(String.join(",", FIELDS));
+            out.newLine();
+            out.flush();
+        }
+    }
+
+    public synchronized void generationFinished(GenerationStats stats) {
+        if (stats.getGeneration() % interval != 0) {
+            return;
+        }
+        line.setLength(0);
+        if (format == Format.JSON_LINES) {
+            line.append('{');
+        }
+        append(0, stats.getGeneration());
+        append(1, stats.getPopSize());
+        append(2, stats.getEvaluationNanos());
+        append(3, stats.getSelectionNanos());
+        append(4, stats.getVariationNanos());
+        append(5, stats.getGamesPlayed());
+        append(6, stats.getNominalCellUpdates());
+        append(7, stats.getNominalCellUpdatesPerSecond());
+        append(8, stats.getMinFitness());
+        append(9, stats.getMeanFitness());
+        append(10, stats.getStandardDev());
+        append(11, stats.getP10Fitness());
+        append(12, stats.getP25Fitness());
+        append(13, stats.getMedianFitness());
+        append(14, stats.getP75Fitness());
+        append(15, stats.getP90Fitness());
+        append(16, stats.getBestFitness());
+        if (format == Format.JSON_LINES) {
+            line.append('}');
+        }
+
+        try {
+            out.append(line);
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write telemetry to " + fileName, e);
+        }
+    }
+
+    private void append(int field, long value) {
+        appendName(field);
+        line.append(value);
+    }
+
+    private void append(int field, double value) {
+        appendName(field);
+        line.append(value);
+    }
+
+    private void appendName(int field) {
+        if (field > 0) {
+            line.append(',');
+        }
+        if (format == Format.JSON_LINES) {
+            line.append('"').append(FIELDS[field]).append("\":");
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
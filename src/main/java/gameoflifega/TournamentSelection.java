@@ -0,0 +1,50 @@
+/*
+TournamentSelection class picks the best of tournamentSize configurations
+drawn at random, with replacement, from the whole population. A pick costs
+O(tournamentSize) whatever the population size.
+ */
+
+package gameoflifega;
+
+import java.util.random.RandomGenerator;
+
+public class TournamentSelection implements SelectionStrategy {
+    // Instance Variables
+    private int tournamentSize;
+    private double[] scores = new double[0];
+    private int popSize = 0;
+
+    /*
+    Returns a TournamentSelection object.
+
+    @param tournamentSize    the int number of configurations in each tournament.
+    @return the TournamentSelection object
+     */
+    public TournamentSelection(int tournamentSize) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("A tournament needs at least one entrant: " + tournamentSize);
+        }
+        this.tournamentSize = tournamentSize;
+    }
+
+    public void prepare(Configuration[] population, int popSize) {
+        if (scores.length < popSize) {
+            scores = new double[popSize];
+        }
+        for (int i = 0; i < popSize; i++) {
+            scores[i] = population[i].getScore();
+        }
+        this.popSize = popSize;
+    }
+
+    public int select(RandomGenerator randGen) {
+        int winner = randGen.nextInt(popSize);
+        for (int entrant = 1; entrant < tournamentSize; entrant++) {
+            int challenger = randGen.nextInt(popSize);
+            if (scores[challenger] > scores[winner]) {
+                winner = challenger;
+            }
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,743 @@
+/**
+ * cellGrid class Implementation
+ *
+ * Author: Ryan Gorey
+ * Last Updated: 5/29/2017
+ *
+ * This class implements a cellGrid object, which simulates Conway's Game of
+ * Life. It includes a very basic graphical interface which can print the
+ * current state of the board to the terminal. It is included to aid with
+ * debugging, and may not be useful for displaying full runs.
+ *
+ *
+ * Three by three neighborhoods of cells are encoded as 9-bit ints, read row by row
+ * from the top left corner, and looked up in the shared 512-entry table of a LifeRule.
+ * The rule defaults to Conway's B3/S23, but any Life-like B/S rule can be used.
+ *
+ * runGame only re-steps the parts of the grid that can change. The grid is split into
+ * 8x8 tiles, and a tile is stepped again only if it or one of the tiles around it
+ * changed in the last generation. Each tile remembers its live cell count, its number
+ * of non-empty neighborhoods and the set of neighborhoods it contains, which is all the
+ * generation's score needs, so skipped tiles still count exactly as before.
+ *
+ * With setNumThreads, runGame also splits the tiles into horizontal bands of tile rows
+ * and steps the bands in parallel, one thread each, meeting at a CyclicBarrier before
+ * and after every generation. The bands share both cell buffers: a band only writes its
+ * own rows of cellMatrixNext and reads the halo rows at its edges straight from
+ * cellMatrix, which nobody writes during the step. Each band adds up the live cells,
+ * non-empty neighborhoods and neighborhood sets of its tiles, and the bands' sets are
+ * merged with OR, so the score is the same as stepping the grid on one thread.
+ *
+ * Test: if the lookup table works properly - try lots of values of neighborhoods.
+ * Test: if next gen works properly.
+ * Test: if the neighborhood window properly slides.
+ * Test: simple oscillating pattern.
+ *
+ *
+ */
+
+
+package gameoflifega;
+
+import java.util.Arrays;
+import java.io.*;
+import java.nio.file.NoSuchFileException;
+import java.util.Scanner;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+
+public class cellGrid implements LifeEngine {
+    private static final int TILE_SIZE = 8;
+
+    // Instance Variables
+    private int gridHeight = 14;
+    private int gridWidth = 14;
+    private boolean[][] cellMatrix;
+    private boolean[][] cellMatrixNext;
+    private LifeRule rule = LifeRule.CONWAY;
+    private boolean[] liveDieTable = rule.liveDieTable;
+    private NoveltyScorer scorer;
+    private CycleDetector cycles;
+    private long[] packedState;
+    private int tileRows;
+    private int tileCols;
+    private boolean[] tileChanged;
+    private boolean[] tileChangedNext;
+    private boolean[] tileDirty;
+    private int[] tilePopulation;
+    private int[] tileNonEmpty;
+    private long[] tilePatterns;
+    private long[] patternsSeen = new long[8];
+    private boolean allTilesDirty = true;
+    private int genCount = 0;
+    private int numThreads = 1;
+    private int numBands = 1;
+    private CyclicBarrier bandBarrier;
+    private Thread[] bandThreads = new Thread[0];
+    private volatile boolean bandsStopping = false;
+    private int[] bandPopulation = new int[1];
+    private int[] bandNonEmpty = new int[1];
+    private long[] bandPatterns = new long[8];
+
+    /*
+    Returns a cellGrid object.
+
+    @return the cellGrid object
+     */
+    public cellGrid() {
+        cellMatrix = new boolean[gridHeight][gridWidth];
+        cellMatrixNext = new boolean[gridHeight][gridWidth];
+        scorer = new NoveltyScorer(gridHeight * gridWidth);
+        initializeTiles();
+    }
+
+    /*
+    Returns a cellGrid object. Note that the user dimensions are increased by
+    two - this is specific to the implementation and should not affect the
+    user's experience.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @return the cellGrid object
+     */
+    public cellGrid(int gridHeight, int gridWidth) {
+        this.gridHeight = gridHeight + 2;
+        this.gridWidth = gridWidth + 2;
+
+        cellMatrix = new boolean[this.gridHeight][this.gridWidth];
+        cellMatrixNext = new boolean[this.gridHeight][this.gridWidth];
+        scorer = new NoveltyScorer(this.gridHeight * this.gridWidth);
+        initializeTiles();
+    }
+
+    private void initializeTiles() {
+        tileRows = (gridHeight - 2 + TILE_SIZE - 1) / TILE_SIZE;
+        tileCols = (gridWidth - 2 + TILE_SIZE - 1) / TILE_SIZE;
+        tileChanged = new boolean[tileRows * tileCols];
+        tileChangedNext = new boolean[tileRows * tileCols];
+        tileDirty = new boolean[tileRows * tileCols];
+        tilePopulation = new int[tileRows * tileCols];
+        tileNonEmpty = new int[tileRows * tileCols];
+        tilePatterns = new long[tileRows * tileCols * 8];
+
+        // An 8x8 tile is exactly one long of the packed state.
+        packedState = new long[Math.max(1, tileRows * tileCols)];
+        cycles = new CycleDetector(packedState.length);
+    }
+
+    /*
+    Returns a cellGrid object that plays by a Life-like rule other than
+    Conway's.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by, e.g. LifeRule.forString("B36/S23").
+    @return the cellGrid object
+     */
+    public cellGrid(int gridHeight, int gridWidth, LifeRule rule) {
+        this(gridHeight, gridWidth);
+        this.rule = rule;
+        this.liveDieTable = rule.liveDieTable;
+    }
+
+    /*
+    Sets how many threads runGame steps the grid with. Each thread steps a
+    band of whole tile rows, so grids with fewer than two tile rows (16 rows
+    or less) always use one. Worth it only for large grids.
+
+    @param numThreads    the int number of threads, 1 (the default) or more.
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Need at least one thread: " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    /*
+    Main function for program - can be used for testing or regular use.
+     */
+    public static void main(String args[]) {
+        cellGrid myGrid = new cellGrid(12, 12);
+
+        Configuration startingConfig = myGrid.loadStartingConfig("startingConfig.txt");
+        myGrid.setStartingConfiguration(startingConfig);
+        //myGrid.runGame(5);
+
+        //boolean[][] startingConfig = new boolean[12][12];
+        //myGrid.setStartingConfiguration(startingConfig);
+
+        double score = myGrid.runGame(30, true);
+        System.out.println("Final Score: " + String.valueOf(score));
+    }
+
+    /*
+    Reads a starting configuration in any format PatternIO reads, sized to
+    fit this grid: a smaller pattern sits in the top left corner, and a larger
+    one is cut off at the grid's right and bottom edges.
+
+    @param fileName    the pattern file.
+    @return the starting configuration
+     */
+    public Configuration loadStartingConfig(String fileName) {
+        Configuration startingConfig = new Configuration(gridHeight - 2, gridWidth - 2);
+        try {
+            Configuration pattern = PatternIO.read(fileName);
+            if (pattern.getHeight() == startingConfig.getHeight() && pattern.getWidth() == startingConfig.getWidth()) {
+                return pattern;
+            }
+            int height = Math.min(pattern.getHeight(), startingConfig.getHeight());
+            int width = Math.min(pattern.getWidth(), startingConfig.getWidth());
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    startingConfig.setCell(row, col, pattern.getCell(row, col));
+                }
+            }
+        }
+        catch(NoSuchFileException ex) {
+            System.out.println("Unable to open file '" + fileName + "'");
+        }
+        catch(IOException ex) {
+            System.out.println("Error reading file '" + fileName + "'");
+        }
+        return startingConfig;
+    }
+
+    /*
+    Sets the initial configuration of living and dead cells on the cellMatrix.
+    Assumes that the input is of the proper dimensions.
+
+    @param initialConfig    2-D array that holds boolean values, with true
+                            denoting living cells, false denoting dead cells.
+     */
+    public void setStartingConfiguration(Configuration initialConfig) {
+        for (int row = 1; row < gridHeight - 1; row++) {
+            for (int col = 1; col < gridWidth - 1; col++) {
+                cellMatrix[row][col] = initialConfig.getCell(row-1, col-1);
+            }
+        }
+        allTilesDirty = true;
+    }
+
+    public void clearCellMatrix() {
+        for (int row = 0; row < gridHeight; row++) {
+            for (int col = 0; col < gridWidth; col++) {
+                cellMatrix[row][col] = false;
+            }
+        }
+        allTilesDirty = true;
+    }
+
+    /*
+    Plays the game for numGenerations generations and returns the total score.
+    Only the tiles that can change are stepped. Once the grid repeats a state
+    it was in (a still life, an oscillator or an empty grid) the remaining
+    generations are scored from the cycle instead of being simulated, unless
+    every generation is being printed. With more than one thread the band
+    threads are started here and stopped before returning.
+
+    The last generation is always a full nextGen, so the grid's NoveltyScorer
+    is left holding that generation's neighborhoods just as it always was.
+     */
+    public double runGame(int numGenerations, boolean printToTerminal) {
+        double totalScore = 0;
+
+        if (printToTerminal) {
+            System.out.println("Welcome to the Game of Life. Here is your starting configuration:");
+            printGrid();
+        }
+
+        boolean detectCycles = !printToTerminal;
+        cycles.reset();
+        int count = Math.min(numThreads, tileRows);
+        if (count <= 1) {
+            // One band needs no threads, barrier or band arrays.
+            totalScore = playGenerations(numGenerations, printToTerminal, detectCycles);
+        } else {
+            startBands(count);
+            try {
+                totalScore = playGenerations(numGenerations, printToTerminal, detectCycles);
+            } finally {
+                stopBands();
+            }
+        }
+
+        if (printToTerminal) {
+            System.out.println("Thanks for playing.\n");
+        }
+
+        return totalScore;
+    }
+
+    private double playGenerations(int numGenerations, boolean printToTerminal, boolean detectCycles) {
+        double totalScore = 0;
+        for (int gen = 0; gen < numGenerations; gen++) {
+            if (detectCycles) {
+                if (allTilesDirty) {
+                    packState();
+                }
+                int period = cycles.checkState(packedState);
+                if (period > 0) {
+                    // Skip whole periods, but always leave at least the last generation to
+                    // play, so the grid and its scorer end as if nothing had been skipped.
+                    int skippedGens = (numGenerations - gen - 1) / period * period;
+                    totalScore += cycles.cycleScore(period, skippedGens);
+                    gen += skippedGens;
+                    detectCycles = false;
+                }
+            }
+            scorer.reset();
+            double score;
+            if (gen == numGenerations - 1) {
+                score = nextGen();
+            } else {
+                score = nextGenActive();
+            }
+            totalScore += score;
+            if (detectCycles) {
+                cycles.recordScore(score);
+            }
+            if (printToTerminal) {
+                System.out.println("\nGeneration " + String.valueOf(gen + 1) + ":");
+                printGrid();
+            }
+        }
+        return totalScore;
+    }
+
+    /*
+    Starts the threads for bands 1 to count - 1, count being at least 2; band
+    0 is stepped by the thread calling runGame. The arrays and the barrier are
+    kept from game to game and only replaced when the count grows or changes.
+     */
+    private void startBands(int count) {
+        numBands = count;
+        if (bandPopulation.length < numBands) {
+            bandPopulation = new int[numBands];
+            bandNonEmpty = new int[numBands];
+            bandPatterns = new long[numBands * 8];
+        }
+        if (bandThreads.length < numBands - 1) {
+            bandThreads = new Thread[numBands - 1];
+        }
+        if (bandBarrier == null || bandBarrier.getParties() != numBands || bandBarrier.isBroken()) {
+            bandBarrier = new CyclicBarrier(numBands);
+        }
+        bandsStopping = false;
+        for (int i = 0; i < numBands - 1; i++) {
+            final int band = i + 1;
+            bandThreads[i] = new Thread(new Runnable() {
+                public void run() {
+                    runBand(band);
+                }
+            }, "cellGrid-band-" + band);
+            bandThreads[i].setDaemon(true);
+            bandThreads[i].start();
+        }
+    }
+
+    /*
+    Loop of a band thread: wait for a generation to start, step the band, and
+    wait for every other band to finish it.
+     */
+    private void runBand(int band) {
+        try {
+            while (true) {
+                bandBarrier.await();
+                if (bandsStopping) {
+                    return;
+                }
+                stepBand(band);
+                bandBarrier.await();
+            }
+        } catch (InterruptedException | BrokenBarrierException e) {
+            // runGame is giving up on the bands; nothing is left to clean up.
+        }
+    }
+
+    private void stopBands() {
+        bandsStopping = true;
+        if (!bandBarrier.isBroken()) {
+            awaitBands();
+        }
+        for (int i = 0; i < numBands - 1; i++) {
+            try {
+                bandThreads[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bandThreads[i] = null;
+        }
+        numBands = 1;
+    }
+
+    private void awaitBands() {
+        try {
+            bandBarrier.await();
+        } catch (InterruptedException e) {
+            bandBarrier.reset();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping the grid", e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("A band of the grid failed to step", e);
+        }
+    }
+
+    /*
+    Packs the cells inside the edge into packedState, one long per tile with
+    the tile's cells row by row. nextGenActive keeps the words of the tiles it
+    steps up to date, so this is only needed after the grid was set or
+    stepped some other way.
+     */
+    private void packState() {
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                int firstRow = 1 + tileRow * TILE_SIZE;
+                int firstCol = 1 + tileCol * TILE_SIZE;
+                int endRow = Math.min(firstRow + TILE_SIZE, gridHeight - 1);
+                int endCol = Math.min(firstCol + TILE_SIZE, gridWidth - 1);
+
+                long tileWord = 0;
+                for (int row = firstRow; row < endRow; row++) {
+                    for (int col = firstCol; col < endCol; col++) {
+                        if (cellMatrix[row][col]) {
+                            tileWord |= 1L << ((row - firstRow) * TILE_SIZE + col - firstCol);
+                        }
+                    }
+                }
+                packedState[tileRow * tileCols + tileCol] = tileWord;
+            }
+        }
+    }
+
+    /*
+    Updates which cells are alive and which cells are dead in the next
+    generation. The cells on the outer edge do not count as live cells and
+    may not come to life. Returns the score for each generation.
+
+    The next generation is written into the spare buffer, which then swaps
+    places with cellMatrix, so stepping never allocates or copies a grid. The
+    edge cells of both buffers are never written and stay dead.
+     */
+    public double nextGen() {
+        int neighborhood;
+        double score = 0;
+
+        for (int curRow = 1; curRow < gridHeight -1; curRow++) {
+            neighborhood = neighborhoodColumn(curRow, 0) << 1 | neighborhoodColumn(curRow, 1);
+
+            for (int curCol = 1; curCol < gridWidth -1; curCol++) {
+                // Slide the window one column right: drop the left column, add the new right one.
+                neighborhood = ((neighborhood << 1) & 0x1B6) | neighborhoodColumn(curRow, curCol + 1);
+                cellMatrixNext[curRow][curCol] = liveDieTable[neighborhood];
+                if (liveDieTable[neighborhood]) {
+                    score += 1;
+                }
+                if (neighborhood != 0) {
+                    score += scorer.score(neighborhood, curRow * gridWidth + curCol);
+                }
+            }
+        }
+        boolean[][] temp = cellMatrix;
+        cellMatrix = cellMatrixNext;
+        cellMatrixNext = temp;
+        allTilesDirty = true;
+        return score;
+    }
+
+    /*
+    Steps the grid like nextGen, but only re-steps the tiles that changed in
+    the last generation and the tiles around them; every other tile is known
+    to be the same as in both buffers. Returns the same score nextGen would
+    with a freshly reset scorer: one point per live cell plus 500 for every
+    non-empty neighborhood that is not the first of its kind.
+     */
+    private double nextGenActive() {
+        markDirtyTiles();
+        if (numBands > 1) {
+            awaitBands();
+            stepBand(0);
+            awaitBands();
+        } else {
+            stepBand(0);
+        }
+
+        int population = 0;
+        int nonEmpty = 0;
+        for (int i = 0; i < patternsSeen.length; i++) {
+            patternsSeen[i] = 0;
+        }
+        for (int band = 0; band < numBands; band++) {
+            population += bandPopulation[band];
+            nonEmpty += bandNonEmpty[band];
+            for (int i = 0; i < 8; i++) {
+                patternsSeen[i] |= bandPatterns[band * 8 + i];
+            }
+        }
+        int distinct = 0;
+        for (int i = 0; i < patternsSeen.length; i++) {
+            distinct += Long.bitCount(patternsSeen[i]);
+        }
+
+        boolean[][] temp = cellMatrix;
+        cellMatrix = cellMatrixNext;
+        cellMatrixNext = temp;
+        boolean[] changedTemp = tileChanged;
+        tileChanged = tileChangedNext;
+        tileChangedNext = changedTemp;
+        allTilesDirty = false;
+
+        return population + 500.0 * (nonEmpty - distinct);
+    }
+
+    /*
+    Steps the dirty tiles of one band of tile rows and adds up the live
+    cells, non-empty neighborhoods and neighborhood set of all its tiles.
+     */
+    private void stepBand(int band) {
+        int firstTileRow = band * tileRows / numBands;
+        int endTileRow = (band + 1) * tileRows / numBands;
+        int population = 0;
+        int nonEmpty = 0;
+        int patternBase = band * 8;
+        for (int i = 0; i < 8; i++) {
+            bandPatterns[patternBase + i] = 0;
+        }
+
+        for (int tileRow = firstTileRow; tileRow < endTileRow; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                int tile = tileRow * tileCols + tileCol;
+                if (tileDirty[tile]) {
+                    tileChangedNext[tile] = stepTile(tileRow, tileCol);
+                } else {
+                    tileChangedNext[tile] = false;
+                }
+                population += tilePopulation[tile];
+                nonEmpty += tileNonEmpty[tile];
+                for (int i = 0; i < 8; i++) {
+                    bandPatterns[patternBase + i] |= tilePatterns[tile * 8 + i];
+                }
+            }
+        }
+        bandPopulation[band] = population;
+        bandNonEmpty[band] = nonEmpty;
+    }
+
+    /*
+    Marks every tile that changed in the last generation, and the tiles
+    around it, as needing to be stepped.
+     */
+    private void markDirtyTiles() {
+        for (int tile = 0; tile < tileDirty.length; tile++) {
+            tileDirty[tile] = allTilesDirty;
+        }
+        if (allTilesDirty) {
+            return;
+        }
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                if (tileChanged[tileRow * tileCols + tileCol]) {
+                    for (int row = Math.max(0, tileRow - 1); row <= Math.min(tileRows - 1, tileRow + 1); row++) {
+                        for (int col = Math.max(0, tileCol - 1); col <= Math.min(tileCols - 1, tileCol + 1); col++) {
+                            tileDirty[row * tileCols + col] = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+    Steps one tile into cellMatrixNext, recounts its live cells, non-empty
+    neighborhoods and neighborhood set, and repacks its word of packedState.
+    Returns whether any of its cells changed.
+     */
+    private boolean stepTile(int tileRow, int tileCol) {
+        int tile = tileRow * tileCols + tileCol;
+        int firstRow = 1 + tileRow * TILE_SIZE;
+        int firstCol = 1 + tileCol * TILE_SIZE;
+        int endRow = Math.min(firstRow + TILE_SIZE, gridHeight - 1);
+        int endCol = Math.min(firstCol + TILE_SIZE, gridWidth - 1);
+        int patternBase = tile * 8;
+
+        boolean changed = false;
+        long tileWord = 0;
+        int population = 0;
+        int nonEmpty = 0;
+        for (int i = 0; i < 8; i++) {
+            tilePatterns[patternBase + i] = 0;
+        }
+
+        for (int curRow = firstRow; curRow < endRow; curRow++) {
+            boolean[] above = cellMatrix[curRow - 1];
+            boolean[] cells = cellMatrix[curRow];
+            boolean[] below = cellMatrix[curRow + 1];
+            boolean[] nextCells = cellMatrixNext[curRow];
+
+            int neighborhood = column(above, cells, below, firstCol - 1) << 1 | column(above, cells, below, firstCol);
+            for (int curCol = firstCol; curCol < endCol; curCol++) {
+                neighborhood = ((neighborhood << 1) & 0x1B6) | column(above, cells, below, curCol + 1);
+                boolean alive = liveDieTable[neighborhood];
+                nextCells[curCol] = alive;
+                if (alive != cells[curCol]) {
+                    changed = true;
+                }
+                if (alive) {
+                    population++;
+                    tileWord |= 1L << ((curRow - firstRow) * TILE_SIZE + curCol - firstCol);
+                }
+                if (neighborhood != 0) {
+                    nonEmpty++;
+                    tilePatterns[patternBase + (neighborhood >>> 6)] |= 1L << neighborhood;
+                }
+            }
+        }
+
+        tilePopulation[tile] = population;
+        tileNonEmpty[tile] = nonEmpty;
+        packedState[tile] = tileWord;
+        return changed;
+    }
+
+    /*
+    Returns the three cells of column col centered on row curRow, placed in the
+    bits a right-hand column of a neighborhood occupies (6, 3 and 0).
+     */
+    private int neighborhoodColumn(int curRow, int col) {
+        int column = 0;
+        if (cellMatrix[curRow - 1][col]) {
+            column |= 0x40;
+        }
+        if (cellMatrix[curRow][col]) {
+            column |= 0x08;
+        }
+        if (cellMatrix[curRow + 1][col]) {
+            column |= 0x01;
+        }
+        return column;
+    }
+
+    /*
+    Same as neighborhoodColumn, for a row already split into the rows above,
+    at and below it.
+     */
+    private static int column(boolean[] above, boolean[] cells, boolean[] below, int col) {
+        int column = 0;
+        if (above[col]) {
+            column |= 0x40;
+        }
+        if (cells[col]) {
+            column |= 0x08;
+        }
+        if (below[col]) {
+            column |= 0x01;
+        }
+        return column;
+    }
+
+    private boolean isAliveNextGen(String neighborhood) {
+        return liveDieTable[Integer.parseInt(neighborhood, 2)];
+    }
+
+    /*
+    Prints out the current grid of living and dead cells, with living cells
+    depicted as black boxes, and dead cells depicted as white spaces. The
+    grid is surrounded by small white squares - these are dead cells whose
+    statuses cannot change and act as the edge of the grid.
+     */
+    public void printGrid() {
+        System.out.println();
+
+        System.out.println(new String(new char[gridWidth]).replace("\0", "\u25AB "));
+        for (int row = 1; row < gridHeight -1; row++) {
+            String curRowString = "\u25AB ";
+            for (int col = 1; col < gridWidth -1; col++) {
+                if (cellMatrix[row][col]) {
+                    curRowString += "\u25A0 ";
+                } else {
+                    curRowString += "\u25A1 ";
+                }
+            }
+            System.out.println(curRowString + "\u25AB");
+        }
+        System.out.println(new String(new char[gridWidth]).replace("\0", "\u25AB "));
+    }
+
+    public void viewSimulation(boolean stepThru, int numGens, Configuration config) {
+        setStartingConfiguration(config);
+        final String ANSI_CLS = "\u001b[2J";
+        final String ANSI_HOME = "\u001b[H";
+
+        double totalScore = 0;
+
+        System.out.print(ANSI_CLS + ANSI_HOME);
+        System.out.flush();
+        System.out.println("Welcome to the Game of Life. Press the enter key to step through each frame.");
+        Scanner scanner = new Scanner(System.in);
+        scanner.nextLine();
+        System.out.print(ANSI_CLS + ANSI_HOME);
+        System.out.flush();
+
+        System.out.println("Here is your starting configuration:\n");
+        printGrid();
+
+        scanner = new Scanner(System.in);
+        scanner.nextLine();
+
+        for (int gen = 0; gen < numGens; gen++) {
+            System.out.print(ANSI_CLS + ANSI_HOME);
+            System.out.flush();
+            scorer.reset();
+            totalScore += nextGen();
+            System.out.println("\nGeneration " + String.valueOf(gen + 1) + ":");
+            printGrid();
+            scanner = new Scanner(System.in);
+            scanner.nextLine();
+
+        }
+        System.out.println("Your final score is: " + String.valueOf(totalScore));
+    }
+
+    /*
+    Returns whether the center cell of a neighborhood string such as
+    "010010010" is alive in the next generation under this grid's rule.
+     */
+    public boolean evalNeighborhoodType(String neighborhood) {
+        return isAliveNextGen(neighborhood);
+    }
+
+    private void testLookupTable() {
+        String testNeighborhood1 = "000000000";
+        String testNeighborhood2 = "111111111";
+        String testNeighborhood3 = "111101111";
+        String testNeighborhood4 = "000010000";
+        String testNeighborhood5 = "111000000";
+        String testNeighborhood6 = "000111000";
+        String testNeighborhood7 = "000000111";
+        String testNeighborhood8 = "101000101";
+        String testNeighborhood9 = "010000010";
+        String testNeighborhood10 = "010010010";
+
+        System.out.println("These should all be living");
+        checkLookupTable(testNeighborhood5);
+        checkLookupTable(testNeighborhood6);
+        checkLookupTable(testNeighborhood7);
+        checkLookupTable(testNeighborhood10);
+
+        System.out.println("These should all be dead");
+        checkLookupTable(testNeighborhood1);
+        checkLookupTable(testNeighborhood2);
+        checkLookupTable(testNeighborhood3);
+        checkLookupTable(testNeighborhood4);
+        checkLookupTable(testNeighborhood8);
+        checkLookupTable(testNeighborhood9);
+    }
+
+    private void checkLookupTable(String neighborhood) {
+        if (isAliveNextGen(neighborhood)) {
+            System.out.println("Will Be Alive");
+        } else { System.out.println("will die");}
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+/*
+VectorGrid class is a BitboardGrid whose stepping loop runs on the JDK Vector
+API, advancing as many words of the grid per instruction as the CPU's widest
+vector registers hold (LongVector.SPECIES_PREFERRED, e.g. 8 words or 512
+cells with AVX-512). Neighborhood scoring is the same scalar code as
+BitboardGrid's, so the scores are identical.
+
+A generation is stepped in two passes. The first adds every cell to its left
+and right neighbors, giving a two bit count per cell of each row (rowOnes and
+rowTwos). The second adds the row counts of the rows above, at and below each
+cell into the four bit count of its whole 3x3 block, center included, and
+applies the rule to that. Splitting the adder this way keeps each loop small
+enough for the JIT to keep every vector in a register; one fused loop like
+BitboardGrid's ends up boxing its vectors and runs slower than scalar code.
+
+Because the bitboard is one flat array whose row ends always carry zero bits,
+every vector lane can load its neighbor words with plain offset loads, no
+matter which row it is in. Both passes only write to arrays they do not read,
+so the last vector of a pass simply starts early enough to end on the last
+word, instead of needing a masked tail.
+
+This class needs the incubating jdk.incubator.vector module, so it lives apart
+from the other sources and is built and run with the module added:
+
+    mvn -P vector compile
+    java --add-modules jdk.incubator.vector -cp target/classes gameoflifega.EvolutionaryAgent
+
+EngineType.VECTOR loads it by name and falls back to BitboardGrid when the
+class or the module is missing.
+ */
+
+package gameoflifega;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorGrid extends BitboardGrid {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    // Instance Variables
+    private long[] rowOnes = new long[cellWords.length];
+    private long[] rowTwos = new long[cellWords.length];
+    private long[] nonEmptyWords = new long[cellWords.length];
+
+    /*
+    Returns a VectorGrid object. Note that the user dimensions are increased
+    by two, just like cellGrid.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @return the VectorGrid object
+     */
+    public VectorGrid(int gridHeight, int gridWidth) {
+        super(gridHeight, gridWidth);
+    }
+
+    /*
+    Returns a VectorGrid object that plays by a Life-like rule other than
+    Conway's.
+
+    @param gridHeight    the int number of rows in the grid.
+    @param gridWidth     the int number of columns in the grid.
+    @param rule          the LifeRule to play by.
+    @return the VectorGrid object
+     */
+    public VectorGrid(int gridHeight, int gridWidth, LifeRule rule) {
+        super(gridHeight, gridWidth, rule);
+    }
+
+    /*
+    Returns the number of 64-bit words each vector operation works on.
+     */
+    public static int vectorWords() {
+        return SPECIES.length();
+    }
+
+    /*
+    Updates which cells are alive and which cells are dead in the next
+    generation, SPECIES.length() words at a time, then scores the generation
+    exactly as BitboardGrid does. Grids too small to fill one vector are
+    stepped by BitboardGrid.
+     */
+    public double nextGen() {
+        int firstWord = 1 + wordsPerRow;
+        int lastWord = 1 + (gridHeight - 1) * wordsPerRow;
+        if (lastWord - firstWord < SPECIES.length()) {
+            return super.nextGen();
+        }
+
+        addRows(firstWord - wordsPerRow, lastWord + wordsPerRow);
+        addBlocks(firstWord, lastWord);
+
+        double score = 0;
+        for (int row = 1; row < gridHeight - 1; row++) {
+            int rowStart = 1 + row * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                score += Long.bitCount(nextWords[rowStart + w]);
+                score += scoreNeighborhoods(row, w, nonEmptyWords[rowStart + w]);
+            }
+        }
+
+        swapBuffers();
+        return score;
+    }
+
+    /*
+    First pass: for words from up to (but not including) to, adds each cell
+    to its left and right neighbors into rowOnes and rowTwos.
+     */
+    private void addRows(int from, int to) {
+        int step = SPECIES.length();
+        for (int i = from; i < to; i += step) {
+            if (i + step > to) {
+                i = to - step;
+            }
+            LongVector mid = LongVector.fromArray(SPECIES, cellWords, i);
+            LongVector left = mid.lanewise(VectorOperators.LSHL, 1)
+                    .or(LongVector.fromArray(SPECIES, cellWords, i - 1).lanewise(VectorOperators.LSHR, 63));
+            LongVector right = mid.lanewise(VectorOperators.LSHR, 1)
+                    .or(LongVector.fromArray(SPECIES, cellWords, i + 1).lanewise(VectorOperators.LSHL, 63));
+
+            LongVector leftMid = left.lanewise(VectorOperators.XOR, mid);
+            leftMid.lanewise(VectorOperators.XOR, right).intoArray(rowOnes, i);
+            left.and(mid).or(right.and(leftMid)).intoArray(rowTwos, i);
+        }
+    }
+
+    /*
+    Second pass: for words from up to (but not including) to, adds the row
+    counts above, at and below each cell into the count of its 3x3 block and
+    writes the next generation and the non-empty neighborhoods.
+     */
+    private void addBlocks(int from, int to) {
+        int step = SPECIES.length();
+        for (int i = from; i < to; i += step) {
+            if (i + step > to) {
+                i = to - step;
+            }
+            LongVector upOnes = LongVector.fromArray(SPECIES, rowOnes, i - wordsPerRow);
+            LongVector midOnes = LongVector.fromArray(SPECIES, rowOnes, i);
+            LongVector downOnes = LongVector.fromArray(SPECIES, rowOnes, i + wordsPerRow);
+            LongVector upTwos = LongVector.fromArray(SPECIES, rowTwos, i - wordsPerRow);
+            LongVector midTwos = LongVector.fromArray(SPECIES, rowTwos, i);
+            LongVector downTwos = LongVector.fromArray(SPECIES, rowTwos, i + wordsPerRow);
+
+            LongVector upMidOnes = upOnes.lanewise(VectorOperators.XOR, midOnes);
+            LongVector ones = upMidOnes.lanewise(VectorOperators.XOR, downOnes);
+            LongVector onesCarry = upOnes.and(midOnes).or(downOnes.and(upMidOnes));
+            LongVector upMidTwos = upTwos.lanewise(VectorOperators.XOR, midTwos);
+            LongVector twosSum = upMidTwos.lanewise(VectorOperators.XOR, downTwos);
+            LongVector twosCarry = upTwos.and(midTwos).or(downTwos.and(upMidTwos));
+            LongVector twos = twosSum.lanewise(VectorOperators.XOR, onesCarry);
+            LongVector foursCarry = twosSum.and(onesCarry);
+            LongVector fours = twosCarry.lanewise(VectorOperators.XOR, foursCarry);
+            LongVector eights = twosCarry.and(foursCarry);
+
+            LongVector interior = LongVector.fromArray(SPECIES, interiorMask, i);
+            LongVector alive = LongVector.fromArray(SPECIES, cellWords, i);
+            applyRule(alive, ones, twos, fours, eights).and(interior).intoArray(nextWords, i);
+            ones.or(twos).or(fours).or(eights).and(interior).intoArray(nonEmptyWords, i);
+        }
+    }
+
+    /*
+    Applies the rule to cells whose 3x3 block count (center included) is split
+    into four bit-planes. A dead cell's neighbor count is its block count, a
+    live cell's is one less.
+     */
+    private LongVector applyRule(LongVector alive, LongVector ones, LongVector twos,
+                                 LongVector fours, LongVector eights) {
+        if (rule.isConway()) {
+            // Block count 3, or block count 4 with a live center.
+            LongVector three = ones.and(twos).lanewise(VectorOperators.AND_NOT, fours.or(eights));
+            LongVector four = fours.lanewise(VectorOperators.AND_NOT, ones.or(twos).or(eights)).and(alive);
+            return three.or(four);
+        }
+
+        LongVector next = LongVector.zero(SPECIES);
+        for (int count = 0; count <= 9; count++) {
+            boolean born = count <= 8 && rule.isBorn(count);
+            boolean survives = count >= 1 && rule.survives(count - 1);
+            if (born || survives) {
+                LongVector hasCount = ((count & 1) != 0 ? ones : ones.not())
+                        .and((count & 2) != 0 ? twos : twos.not())
+                        .and((count & 4) != 0 ? fours : fours.not())
+                        .and((count & 8) != 0 ? eights : eights.not());
+                if (born && survives) {
+                    next = next.or(hasCount);
+                } else if (born) {
+                    next = next.or(hasCount.lanewise(VectorOperators.AND_NOT, alive));
+                } else {
+                    next = next.or(hasCount.and(alive));
+                }
+            }
+        }
+        return next;
+    }
+}